@@ -0,0 +1,67 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.config.ItemProcessingProperties.BackgroundSettings;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.service.AdaptiveBatchSizer;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingRun;
+
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes 20k pending items the way the background processor does (adaptive batch size and concurrency)
+ * against an INCREMENTAL run with the fixed chunk size and workers. The simulated work is off, so the database
+ * is the bottleneck and the difference is what the sizer finds over the fixed defaults.
+ * The sizer is kept across iterations, like the processor keeps it across sweeps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BackgroundProcessingBenchmark {
+
+    @Param({"20000"})
+    public int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private AdaptiveBatchSizer sizer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, itemCount);
+        itemService = context.getBean(ItemService.class);
+        ItemProcessingProperties properties = context.getBean(ItemProcessingProperties.class);
+        BackgroundSettings background = properties.getBackground();
+        sizer = new AdaptiveBatchSizer(properties.getChunkSize(), background.getMinBatchSize(),
+                background.getMaxBatchSize(), background.getBatchSizeIncrement(), properties.getMaxInFlightChunks(),
+                background.getMaxConcurrency(), background.getLatencyThreshold().toNanos());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetItems() {
+        BenchmarkContext.resetStatuses(context);
+    }
+
+    @Benchmark
+    public long fixedIncremental() {
+        return itemService.processItemsInChunks(ProcessingMode.INCREMENTAL, new ProcessingRun(), chunk -> { }).join();
+    }
+
+    @Benchmark
+    public long adaptiveBackground() {
+        return itemService.processPendingItems(new ProcessingRun(), sizer, () -> false).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,182 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.InternshipApplication;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.service.ItemService;
+
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared setup for the benchmarks: boots the real application (without the web server)
+ * against its own in-memory H2 database, and fills it with test items.
+ */
+final class BenchmarkContext {
+
+    private static final int SEED_BATCH = 1000;
+    private static final int SEED_RANGE = 100_000;
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Starts the application with the simulated per-item delay switched off, so we measure our own
+     * overhead (queries, batching, executors) instead of Thread.sleep().
+     * Every call gets a fresh database, so benchmarks can't see each other's rows.
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        return startOn("bench-" + UUID.randomUUID(), properties);
+    }
+
+    /**
+     * Like start(), but on the named in-memory database: contexts started on the same name share it,
+     * like application instances sharing a database server.
+     */
+    static ConfigurableApplicationContext startOn(String database, String... properties) {
+        return run(defaults(database, properties), new Class<?>[0]);
+    }
+
+    /**
+     * Like start(), with a JdbcStatementCounter bean counting every statement sent to the database.
+     */
+    static ConfigurableApplicationContext startCountingStatements(String... properties) {
+        return run(defaults("bench-" + UUID.randomUUID(), properties), new Class<?>[]{JdbcStatementCounter.class});
+    }
+
+    /**
+     * A property given here replaces the default of the same name rather than following it:
+     * the same option twice on the command line would be bound as a comma-separated list of both values.
+     */
+    private static List<String> defaults(String database, String... properties) {
+        List<String> all = new ArrayList<>(List.of(properties));
+        for (String property : List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.main.banner-mode=off",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN",
+                "items.processing.item-delay=0ms")) {
+            String name = property.substring(0, property.indexOf('=') + 1);
+            if (all.stream().noneMatch(given -> given.startsWith(name))) {
+                all.add(property);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Starts the application on the "persistent" profile, with its database file at the given path
+     * (without the .mv.db suffix). The file survives close(), so the next start is a warm restart.
+     */
+    static ConfigurableApplicationContext startPersistent(String path) {
+        return run(List.of(
+                "items.storage.path=" + path,
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"), new Class<?>[0], "persistent");
+    }
+
+    /**
+     * Starts the "persistent" profile on a database of count items kept in target/items-db-count.
+     * Seeding a large table is slow (the full-text trigger indexes every row), so the file is only filled
+     * the first time and reused by the following benchmarks and runs.
+     */
+    static ConfigurableApplicationContext startSeededPersistent(int count) {
+        Path database = Path.of("target", "items-db-" + count, "items");
+        boolean seeded = Files.exists(Path.of(database + ".mv.db"));
+        ConfigurableApplicationContext context = startPersistent(database.toAbsolutePath().toString());
+        if (!seeded) {
+            seedWithSql(context, count);
+        }
+        return context;
+    }
+
+    /**
+     * The properties are passed as command line arguments: SpringApplicationBuilder.properties() would only set
+     * defaults, and application.properties (e.g. its in-memory datasource URL) would win over them.
+     */
+    private static ConfigurableApplicationContext run(List<String> properties, Class<?>[] sources,
+                                                      String... profiles) {
+        return new SpringApplicationBuilder(InternshipApplication.class)
+                .sources(sources)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Inserts count PENDING items through the batched createAll() path.
+     */
+    static void seed(ConfigurableApplicationContext context, int count) {
+        ItemService itemService = context.getBean(ItemService.class);
+        for (int start = 0; start < count; start += SEED_BATCH) {
+            itemService.createAll(items(start, Math.min(SEED_BATCH, count - start)));
+        }
+    }
+
+    /**
+     * Inserts count items with plain SQL. Rows are generated inside H2 with SYSTEM_RANGE, which is far quicker
+     * than going through JPA for tables with millions of rows. Each statement (and so each transaction) covers
+     * a hundred thousand rows, so the undo log and the full-text trigger's work stay bounded.
+     * Every tenth item is PENDING, the rest PROCESSED, and every email contains the item number.
+     * Names and descriptions use a limited vocabulary like real text does: H2's full-text index keeps every
+     * distinct word in memory, so a unique number in every name would measure that cache, not the search.
+     * The name word "tagN" (N = item number modulo 100000) is shared by one in every 100000 items.
+     */
+    static void seedWithSql(ConfigurableApplicationContext context, int count) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        for (long from = 1; from <= count; from += SEED_RANGE) {
+            long to = Math.min(from + SEED_RANGE - 1, count);
+            jdbc.update("INSERT INTO item (id, name, description, status, email, version) "
+                    + "SELECT x, 'Item tag' || MOD(x, 100000), 'Benchmark item in batch ' || (x / 1000), "
+                    + "CASE WHEN MOD(x, 10) = 0 THEN 'PENDING' ELSE 'PROCESSED' END, "
+                    + "'item' || x || '@example.com', 0 FROM SYSTEM_RANGE(?, ?)", from, to);
+        }
+        jdbc.execute("ALTER SEQUENCE item_seq RESTART WITH " + (count + 100));
+    }
+
+    /**
+     * Builds count detached items, numbered from start.
+     */
+    static List<Item> items(int start, int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = start; i < start + count; i++) {
+            items.add(new Item("Item " + i, "Benchmark item number " + i + " with a reasonably sized description",
+                    ItemStatus.PENDING, "item" + i + "@example.com"));
+        }
+        return items;
+    }
+
+    /**
+     * One keyset page of read-only Item entities after the cursor, the way GET /api/items loaded its pages before
+     * it wrote them straight from the JDBC rows. The application doesn't need the query anymore; the benchmarks
+     * keep it as the baseline to compare the listing against.
+     */
+    static List<Item> entityPage(ConfigurableApplicationContext context, long after, int size) {
+        try (EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager()) {
+            return entityManager.createQuery("SELECT i FROM Item i WHERE i.id > :after ORDER BY i.id", Item.class)
+                    .setParameter("after", after)
+                    .setMaxResults(size)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultList();
+        }
+    }
+
+    /**
+     * Puts every item back to PENDING so each iteration processes the full table again.
+     */
+    static void resetStatuses(ConfigurableApplicationContext context) {
+        context.getBean(JdbcTemplate.class).update(
+                "UPDATE item SET status = 'PENDING', claim_token = NULL, claimed_at = NULL");
+    }
+}
@@ -0,0 +1,70 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingRun;
+
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a PARTITIONED run over 4k items with 1, 2 and 4 application instances sharing one database.
+ * The simulated work is switched back on (5 ms per item, 4 lanes per instance), so each instance can process
+ * a fixed number of items per second, as if it were a replica with its own CPUs; the score, time per run,
+ * should then drop roughly in proportion to the number of instances.
+ * The run is started on the first instance; the others join it through their heartbeat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ClusterProcessingBenchmark {
+
+    @Param({"4000"})
+    public int itemCount;
+
+    @Param({"1", "2", "4"})
+    public int instances;
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String database = "cluster-" + UUID.randomUUID();
+        for (int i = 0; i < instances; i++) {
+            contexts.add(BenchmarkContext.startOn(database,
+                    "items.processing.item-delay=5ms",
+                    "items.processing.stage-parallelism=4",
+                    "items.processing.cluster.enabled=true",
+                    "items.changes.enabled=false",
+                    "items.processing.cluster.instance-id=instance-" + i,
+                    "items.processing.cluster.partition-size=200",
+                    "items.processing.cluster.heartbeat-interval=100ms"));
+        }
+        BenchmarkContext.seed(contexts.get(0), itemCount);
+        itemService = contexts.get(0).getBean(ItemService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetItems() {
+        BenchmarkContext.resetStatuses(contexts.get(0));
+    }
+
+    @Benchmark
+    public long processAll() {
+        return itemService.processItemsInChunks(ProcessingMode.PARTITIONED, new ProcessingRun(), chunk -> { }).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+}
@@ -0,0 +1,49 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.service.ItemExportFormat;
+import com.siemens.internship.service.ItemExportService;
+
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full export of itemCount items in each format, written to a stream that throws the bytes away.
+ * Run it with "-prof gc": gc.alloc.rate.norm is what one export allocates, and it should grow only with
+ * the per-row column Strings from the driver, never with Item entities or a buffered result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ItemExportBenchmark {
+
+    @Param({"1000000"})
+    public int itemCount;
+
+    @Param({"CSV", "BINARY"})
+    public ItemExportFormat format;
+
+    private ConfigurableApplicationContext context;
+    private ItemExportService exportService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startSeededPersistent(itemCount);
+        exportService = context.getBean(ItemExportService.class);
+    }
+
+    @Benchmark
+    public long export() {
+        return exportService.export(format, OutputStream.nullOutputStream());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
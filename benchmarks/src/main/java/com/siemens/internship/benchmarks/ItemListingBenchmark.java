@@ -0,0 +1,107 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemListingService;
+import com.siemens.internship.service.ItemService;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the unbounded findAll() against keyset pages of entities (BenchmarkContext.entityPage()).
+ * Reading the whole table page by page shows the cost of paging itself, while the "deep page"
+ * benchmarks show that a page near the end of the table costs the same as the first one.
+ * The "json" benchmarks time a whole response body instead: the entities serialized the way GET /api/items used to,
+ * against the page the endpoint now writes straight from the JDBC rows, with all fields or just ?fields=id,status.
+ * Run them with -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemListingBenchmark {
+
+    @Param({"10000"})
+    public int itemCount;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemListingService listingService;
+    private ObjectMapper objectMapper;
+    private ObjectMapper beanMapper;
+    private long deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, itemCount);
+        itemService = context.getBean(ItemService.class);
+        listingService = context.getBean(ItemListingService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        beanMapper = ItemSerializationBenchmark.withBeanSerializer(objectMapper);
+        List<Item> all = itemService.findAll();
+        deepCursor = all.get(all.size() - pageSize - 1).getId();
+    }
+
+    @Benchmark
+    public List<Item> findAll() {
+        return itemService.findAll();
+    }
+
+    @Benchmark
+    public void allPagesKeyset(Blackhole blackhole) {
+        long after = 0;
+        List<Item> page;
+        do {
+            page = BenchmarkContext.entityPage(context, after, pageSize);
+            blackhole.consume(page);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+    }
+
+    @Benchmark
+    public List<Item> firstPage() {
+        return BenchmarkContext.entityPage(context, 0, pageSize);
+    }
+
+    @Benchmark
+    public List<Item> deepPage() {
+        return BenchmarkContext.entityPage(context, deepCursor, pageSize);
+    }
+
+    @Benchmark
+    public void deepPageJsonEntities() throws Exception {
+        beanMapper.writeValue(OutputStream.nullOutputStream(),
+                BenchmarkContext.entityPage(context, deepCursor, pageSize));
+    }
+
+    @Benchmark
+    public void deepPageJsonStreamed() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(),
+                listingService.page(deepCursor, pageSize, ItemListingService.ALL_FIELDS));
+    }
+
+    @Benchmark
+    public void deepPageJsonStatusFields() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(),
+                listingService.page(deepCursor, pageSize, List.of("id", "status")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,168 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChangeType;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.ItemChangeLog;
+import com.siemens.internship.service.ItemService;
+
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statements per item before and after the persistence tuning, for updates, inserts and processing.
+ * Every operation handles batchSize items. The "before" variants replay how the code used to do it:
+ * save() merging a detached item (a SELECT and then the UPDATE), inserts in a transaction each, and per-item
+ * processing with its own lookup and merge. The "after" variants go through ItemService as it is now.
+ * Besides the time, each benchmark prints the JDBC statements per item at the end of its run, counted by
+ * JdbcStatementCounter (a JDBC batch counts as one, like one round trip to a database server).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ItemPersistenceBenchmark {
+
+    @Param({"1000"})
+    public int itemCount;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private ItemChangeLog changeLog;
+    private TransactionTemplate transactionTemplate;
+    private JdbcStatementCounter counter;
+    private List<Item> detached;
+    private int next;
+    private long statements;
+    private long items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startCountingStatements();
+        BenchmarkContext.seed(context, itemCount);
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        changeLog = context.getBean(ItemChangeLog.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        counter = context.getBean(JdbcStatementCounter.class);
+        detached = itemService.findAll();
+    }
+
+    /**
+     * The next batchSize seeded items, going round the table.
+     */
+    private List<Item> nextBatch() {
+        if (next + batchSize > detached.size()) {
+            next = 0;
+        }
+        List<Item> batch = detached.subList(next, next + batchSize);
+        next += batchSize;
+        return batch;
+    }
+
+    private void counted(int itemsHandled, Runnable work) {
+        long before = counter.count();
+        work.run();
+        statements += counter.count() - before;
+        items += itemsHandled;
+    }
+
+    /**
+     * Before: ItemService.save() handed detached items to merge(), which loads the row before updating it.
+     */
+    @Benchmark
+    public void updateByMerge() {
+        List<Item> batch = nextBatch();
+        counted(batch.size(), () -> batch.forEach(item -> {
+            item.setDescription("Merged " + item.getVersion());
+            Item merged = transactionTemplate.execute(status -> {
+                Item saved = itemRepository.save(item);
+                changeLog.record(ItemChangeType.UPDATED, item.getId());
+                return saved;
+            });
+            item.setVersion(merged.getVersion());
+        }));
+    }
+
+    /**
+     * After: one versioned UPDATE per item, no SELECT.
+     */
+    @Benchmark
+    public void updateDirect() {
+        List<Item> batch = nextBatch();
+        counted(batch.size(), () -> batch.forEach(item -> {
+            item.setDescription("Updated " + item.getVersion());
+            itemService.save(item);
+        }));
+    }
+
+    /**
+     * Before: every item inserted in its own transaction, as POST /api/items does one at a time.
+     */
+    @Benchmark
+    public void insertOneByOne() {
+        List<Item> batch = BenchmarkContext.items(0, batchSize);
+        counted(batch.size(), () -> batch.forEach(itemService::save));
+    }
+
+    /**
+     * After: one transaction with batched INSERTs, as POST /api/items/batch does.
+     */
+    @Benchmark
+    public void insertBatched() {
+        List<Item> batch = BenchmarkContext.items(0, batchSize);
+        counted(batch.size(), () -> itemService.createAll(batch));
+    }
+
+    /**
+     * Before: per-item processing with a lookup and a merge() per item.
+     */
+    @Benchmark
+    public void processOneByOne() {
+        List<Long> ids = nextBatch().stream().map(Item::getId).toList();
+        counted(ids.size(), () -> ids.forEach(id -> {
+            Item item = itemRepository.findById(id).orElseThrow();
+            item.setStatus(ItemStatus.PROCESSED);
+            transactionTemplate.executeWithoutResult(status -> {
+                itemRepository.save(item);
+                changeLog.record(ItemChangeType.PROCESSED, id);
+            });
+        }));
+    }
+
+    /**
+     * After: the chunk is loaded with one select and written back as JDBC batches in one transaction.
+     */
+    @Benchmark
+    public List<Item> processChunk() throws Exception {
+        List<Long> ids = nextBatch().stream().map(Item::getId).toList();
+        List<List<Item>> processed = new ArrayList<>(1);
+        counted(ids.size(), () -> {
+            try {
+                processed.add(itemService.processChunk(ids));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return processed.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(BenchmarkParams params) {
+        System.out.printf("%n%s: %.2f JDBC statements per item%n", params.getBenchmark(), (double) statements / items);
+        context.close();
+    }
+}
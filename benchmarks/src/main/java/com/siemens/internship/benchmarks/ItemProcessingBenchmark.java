@@ -0,0 +1,59 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.service.ItemService;
+
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full processItemsAsync() run over 1k, 10k and 100k items,
+ * in each processing mode and on each executor type.
+ * Every invocation processes the whole table, so the score is the time per run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ItemProcessingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    @Param({"chunked", "per-item"})
+    public String mode;
+
+    @Param({"virtual", "platform"})
+    public String executor;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "items.processing.mode=" + mode,
+                "items.processing.executor.type=" + executor);
+        BenchmarkContext.seed(context, itemCount);
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetItems() {
+        BenchmarkContext.resetStatuses(context);
+    }
+
+    @Benchmark
+    public List<?> processAll() {
+        return itemService.processItemsAsync().join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,83 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemSearch;
+import com.siemens.internship.service.ItemService;
+
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of GET /api/items/search for each kind of filter, over a table of itemCount items.
+ * Each of these should be an index lookup, so the target is well under 10 ms per query
+ * regardless of the table size.
+ * A full-text index over millions of rows doesn't fit an in-memory database on a default heap, so this runs
+ * on the "persistent" profile, over a database file that is seeded once and then reused
+ * (see BenchmarkContext.startSeededPersistent()).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    @Param({"1000000"})
+    public int itemCount;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private String someItem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startSeededPersistent(itemCount);
+        itemService = context.getBean(ItemService.class);
+        someItem = String.valueOf(itemCount / 2 + 7);
+    }
+
+    private List<Item> search(ItemSearch search) {
+        return itemService.search(search, 0, pageSize);
+    }
+
+    @Benchmark
+    public List<Item> byStatus() {
+        return search(new ItemSearch(ItemStatus.PENDING, null, null, null));
+    }
+
+    @Benchmark
+    public List<Item> byEmail() {
+        return search(new ItemSearch(null, "item" + someItem + "@example.com", null, null));
+    }
+
+    @Benchmark
+    public List<Item> byEmailPrefix() {
+        return search(new ItemSearch(null, null, "item" + someItem, null));
+    }
+
+    /**
+     * A word shared by one in every 100000 items (see BenchmarkContext.seedWithSql()).
+     */
+    @Benchmark
+    public List<Item> fullText() {
+        return search(new ItemSearch(null, null, null, "tag12345"));
+    }
+
+    @Benchmark
+    public List<Item> fullTextAndStatus() {
+        return search(new ItemSearch(ItemStatus.PROCESSED, null, null, "tag12345"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.model.Item;
+
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of Item lists, the last step of GET /api/items and /process.
+ * We use an ObjectMapper built the same way Spring Boot builds the application's one.
+ * serialiseList goes through ItemJsonSerializer, serialiseListBeanSerializer through the reflection-based
+ * bean serializer Jackson would use without it.
+ * Run with -prof gc to see allocation per operation next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int itemCount;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper beanMapper;
+    private List<Item> items;
+
+    /**
+     * Puts Jackson's bean serializer back in place of ItemJsonSerializer.
+     */
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+
+    static ObjectMapper withBeanSerializer(ObjectMapper objectMapper) {
+        return objectMapper.copy().addMixIn(Item.class, BeanSerialized.class);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        beanMapper = withBeanSerializer(objectMapper);
+        items = BenchmarkContext.items(0, itemCount);
+        long id = 1;
+        for (Item item : items) {
+            item.setId(id++);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialiseList() throws Exception {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serialiseListBeanSerializer() throws Exception {
+        return beanMapper.writeValueAsBytes(items);
+    }
+}
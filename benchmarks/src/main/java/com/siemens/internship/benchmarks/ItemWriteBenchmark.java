@@ -0,0 +1,54 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemService;
+
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting a group of items one save() at a time (what one POST /api/items per row does)
+ * versus a single batched createAll() (what POST /api/items/batch does).
+ * The score is the time to write the whole group.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemWriteBenchmark {
+
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @Benchmark
+    public void singleSaves(Blackhole blackhole) {
+        for (Item item : BenchmarkContext.items(0, batchSize)) {
+            blackhole.consume(itemService.save(item));
+        }
+    }
+
+    @Benchmark
+    public List<Item> batchedSave() {
+        return itemService.createAll(BenchmarkContext.items(0, batchSize));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
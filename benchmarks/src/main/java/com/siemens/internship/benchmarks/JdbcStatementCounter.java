@@ -0,0 +1,66 @@
+package com.siemens.internship.benchmarks;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the statements the application sends to the database: every execute*() call on a JDBC statement,
+ * where a whole executeBatch() counts once, because that's one round trip to a database server.
+ * It wraps the DataSource bean, so it sees Hibernate, JdbcTemplate and Flyway alike.
+ * Register it as an extra source of the application (BenchmarkContext.startCountingStatements()).
+ */
+public class JdbcStatementCounter implements BeanPostProcessor {
+
+    private final LongAdder statements = new LongAdder();
+
+    public long count() {
+        return statements.sum();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource);
+        }
+        return bean;
+    }
+
+    private <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(method, target, args);
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, connection);
+            }
+            if (result instanceof Statement statement) {
+                // Keep the most specific interface (PreparedStatement, CallableStatement) the caller asked for.
+                return proxy(statementType(method.getReturnType()), statement);
+            }
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                statements.increment();
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Statement> statementType(Class<?> declared) {
+        return (Class<Statement>) declared;
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.siemens.internship.benchmarks;
+import com.siemens.internship.service.ItemListingService;
+import com.siemens.internship.service.ItemService;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm restart of the "persistent" profile over a file database that already holds itemCount items.
+ * restart() is the time to boot and shut down the application, restartAndFirstQueries() adds the first
+ * page of the listing and one lookup by ID, so the difference between the two is the first-query latency.
+ *
+ * Budget at 10M items: restartAndFirstQueries under 5 s, and no more than 100 ms above restart().
+ * Neither should grow with the table size – if they do, something started scanning or introspecting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PersistentStartupBenchmark {
+
+    @Param({"10000000"})
+    public int itemCount;
+
+    private Path directory;
+
+    /**
+     * Creates the database once, on a cold start of the same profile.
+     * At 10M items this takes a good while, since the full-text trigger indexes every inserted row.
+     */
+    @Setup(Level.Trial)
+    public void seed() throws IOException {
+        directory = Files.createTempDirectory("items-bench");
+        try (ConfigurableApplicationContext context = start()) {
+            BenchmarkContext.seedWithSql(context, itemCount);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return BenchmarkContext.startPersistent(directory.resolve("items").toString());
+    }
+
+    @Benchmark
+    public void restart() {
+        start().close();
+    }
+
+    @Benchmark
+    public void restartAndFirstQueries(Blackhole blackhole) throws IOException {
+        try (ConfigurableApplicationContext context = start()) {
+            ItemService itemService = context.getBean(ItemService.class);
+            context.getBean(ObjectMapper.class).writeValue(OutputStream.nullOutputStream(),
+                    context.getBean(ItemListingService.class).page(0, 100, ItemListingService.ALL_FIELDS));
+            blackhole.consume(itemService.findById((long) itemCount / 2));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+}
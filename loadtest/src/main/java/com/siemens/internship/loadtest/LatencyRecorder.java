@@ -0,0 +1,70 @@
+package com.siemens.internship.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the latency of every request, per operation, in HdrHistogram Recorders.
+ * A Recorder takes values from any number of threads without locking, so recording doesn't distort
+ * what we measure, and the histogram keeps the tail (p99.9, max) exact to three significant digits.
+ */
+final class LatencyRecorder {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * What one operation did during a run.
+     */
+    record Result(String operation, Histogram latencies, long errors, long clientErrors) {
+
+        long count() {
+            return latencies.getTotalCount();
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+
+        double maxMillis() {
+            return latencies.getMaxValue() / 1_000_000.0;
+        }
+    }
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> clientErrors = new ConcurrentHashMap<>();
+
+    /**
+     * Records one request. Status 0 means it never got an answer (connection error, timeout).
+     * 5xx and unanswered requests are errors; 4xx are counted separately, since e.g. a 409 on a concurrent
+     * update is a legitimate answer.
+     */
+    void record(String operation, long latencyNanos, int status) {
+        recorders.computeIfAbsent(operation, name -> new Recorder(SIGNIFICANT_DIGITS)).recordValue(latencyNanos);
+        if (status == 0 || status >= 500) {
+            errors.computeIfAbsent(operation, name -> new LongAdder()).increment();
+        } else if (status >= 400) {
+            clientErrors.computeIfAbsent(operation, name -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Everything recorded so far, by operation name.
+     */
+    Map<String, Result> results() {
+        Map<String, Result> results = new TreeMap<>();
+        recorders.forEach((operation, recorder) -> results.put(operation, new Result(operation,
+                recorder.getIntervalHistogram(), count(errors, operation), count(clientErrors, operation))));
+        return results;
+    }
+
+    private static long count(Map<String, LongAdder> counters, String operation) {
+        LongAdder counter = counters.get(operation);
+        return counter == null ? 0 : counter.sum();
+    }
+}
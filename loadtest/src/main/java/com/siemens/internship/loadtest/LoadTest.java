@@ -0,0 +1,180 @@
+package com.siemens.internship.loadtest;
+import com.siemens.internship.InternshipApplication;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.service.ItemService;
+
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test: boots the application on a random port against a fresh in-memory H2 database,
+ * seeds it, drives it over real HTTP and checks the latencies against the SLOs in slo.properties.
+ * Exits with status 1 if any SLO is missed, so the Maven build fails on a latency regression.
+ *
+ * Arguments are key=value pairs (defaults in brackets): duration [20s] and warmup [5s] per run, users [4] for the
+ * closed model, rate [50] requests per second for the open model, process-users [1], items [10000] to seed,
+ * runs [closed,open,process], slo [the bundled slo.properties] and rate-limit [false] to keep the API rate limits on.
+ */
+public final class LoadTest {
+
+    private static final int SEED_BATCH = 1000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "20s"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "5s"));
+        int users = Integer.parseInt(options.getOrDefault("users", "4"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        int processUsers = Integer.parseInt(options.getOrDefault("process-users", "1"));
+        int items = Integer.parseInt(options.getOrDefault("items", "10000"));
+        List<String> runs = List.of(options.getOrDefault("runs", "closed,open,process").split(","));
+        SloCheck slos = SloCheck.load(options.get("slo"));
+
+        List<String> violations = new ArrayList<>();
+        Map<String, Map<String, LatencyRecorder.Result>> report = new LinkedHashMap<>();
+        try (ConfigurableApplicationContext context = start(Boolean.parseBoolean(options.getOrDefault("rate-limit", "false")));
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://localhost:" + port);
+            long[] seeded = seed(context.getBean(ItemService.class), items);
+
+            Scenario crud = Scenario.crud(base, seeded);
+            Scenario process = Scenario.process(base);
+            for (String run : runs) {
+                Workload workload = switch (run.trim()) {
+                    case "closed" -> new Workload.Closed(users);
+                    case "open" -> new Workload.Open(rate);
+                    case "process" -> new Workload.Closed(processUsers);
+                    default -> throw new IllegalArgumentException("Unknown run " + run + ", expected closed, open or process");
+                };
+                Scenario scenario = run.trim().equals("process") ? process : crud;
+                String name = scenario.name() + "/" + workload.name();
+
+                // Warm up the JIT, the caches and the connection pools before we start counting.
+                workload.run(client, scenario, warmup, new LatencyRecorder());
+                LatencyRecorder recorder = new LatencyRecorder();
+                workload.run(client, scenario, duration, recorder);
+
+                Map<String, LatencyRecorder.Result> results = recorder.results();
+                report.put(name, results);
+                print(name, duration, results);
+                violations.addAll(slos.violations(name, results));
+            }
+        }
+
+        writeJson(Path.of("target", "loadtest-result.json"), report);
+        if (!violations.isEmpty()) {
+            System.out.println("SLO violations:");
+            violations.forEach(violation -> System.out.println("  " + violation));
+            System.exit(1);
+        }
+        System.out.println("All SLOs met.");
+    }
+
+    /**
+     * The real application with its web server on a random port. Like the benchmarks we switch the simulated
+     * per-item delay off, so we measure our own overhead; the rate limits are off unless asked for,
+     * since one load generator on localhost would otherwise just be measuring its own 429s.
+     */
+    private static ConfigurableApplicationContext start(boolean rateLimit) {
+        // Passed as command line arguments, so they win over application.properties.
+        return new SpringApplicationBuilder(InternshipApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.main.banner-mode=off",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN",
+                "--items.processing.item-delay=0ms",
+                "--items.processing.resume-on-startup=false",
+                "--items.rate-limit.enabled=" + rateLimit);
+    }
+
+    private static long[] seed(ItemService itemService, int count) {
+        long[] ids = new long[count];
+        int seeded = 0;
+        while (seeded < count) {
+            List<Item> batch = new ArrayList<>();
+            for (int i = 0; i < Math.min(SEED_BATCH, count - seeded); i++) {
+                batch.add(new Item("Item " + (seeded + i), "Seeded for the load test", ItemStatus.PENDING,
+                        "item" + (seeded + i) + "@loadtest.test"));
+            }
+            for (Item item : itemService.createAll(batch)) {
+                ids[seeded++] = item.getId();
+            }
+        }
+        return ids;
+    }
+
+    private static void print(String run, Duration duration, Map<String, LatencyRecorder.Result> results) {
+        System.out.printf("%n%s%n", run);
+        System.out.printf("%-10s %10s %10s %8s %8s %10s %10s %10s %10s%n",
+                "operation", "requests", "req/s", "errors", "4xx", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (LatencyRecorder.Result result : results.values()) {
+            System.out.printf("%-10s %10d %10.1f %8d %8d %10.2f %10.2f %10.2f %10.2f%n",
+                    result.operation(), result.count(), result.count() / (duration.toMillis() / 1000.0),
+                    result.errors(), result.clientErrors(), result.percentileMillis(50), result.percentileMillis(99),
+                    result.percentileMillis(99.9), result.maxMillis());
+        }
+    }
+
+    /**
+     * Writes the percentiles of every run to a small JSON file, so runs can be compared or charted later.
+     */
+    private static void writeJson(Path file, Map<String, Map<String, LatencyRecorder.Result>> report) throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        String runSeparator = "";
+        for (Map.Entry<String, Map<String, LatencyRecorder.Result>> run : report.entrySet()) {
+            json.append(runSeparator).append("\n  \"").append(run.getKey()).append("\": {");
+            String separator = "";
+            for (LatencyRecorder.Result result : run.getValue().values()) {
+                json.append(separator).append(String.format(
+                        "%n    \"%s\": {\"count\": %d, \"errors\": %d, \"p50\": %.3f, \"p99\": %.3f, \"p999\": %.3f, \"max\": %.3f}",
+                        result.operation(), result.count(), result.errors(), result.percentileMillis(50),
+                        result.percentileMillis(99), result.percentileMillis(99.9), result.maxMillis()));
+                separator = ",";
+            }
+            json.append("\n  }");
+            runSeparator = ",";
+        }
+        json.append("\n}\n");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, json);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 1) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+}
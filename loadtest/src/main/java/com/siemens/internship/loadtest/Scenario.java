@@ -0,0 +1,133 @@
+package com.siemens.internship.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A weighted mix of requests against the API. Every call to next() picks one operation by weight
+ * and builds its request.
+ */
+final class Scenario {
+
+    /**
+     * One kind of request, e.g. "get" for GET /api/items/{id}. weight is relative to the other operations.
+     */
+    record Operation(String name, int weight, RequestFactory factory) {
+    }
+
+    @FunctionalInterface
+    interface RequestFactory {
+        Request build(String operation, ThreadLocalRandom random);
+    }
+
+    /**
+     * A request to send, labelled with the operation it belongs to. onResponse gets the body of a 2xx answer.
+     */
+    record Request(String operation, HttpRequest request, Consumer<String> onResponse) {
+
+        Request(String operation, HttpRequest request) {
+            this(operation, request, body -> { });
+        }
+    }
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final String name;
+    private final List<Operation> operations;
+    private final int totalWeight;
+
+    private Scenario(String name, List<Operation> operations) {
+        this.name = name;
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    String name() {
+        return name;
+    }
+
+    Request next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                return operation.factory().build(operation.name(), random);
+            }
+        }
+        throw new IllegalStateException("Operation weights must be positive");
+    }
+
+    /**
+     * The everyday mix: mostly lookups, some listing, and writes that create, update and delete items.
+     * Lookups, listing and updates go to the seeded items; deletes only take items this scenario created itself,
+     * so the seeded set stays the same for every run.
+     */
+    static Scenario crud(URI base, long[] seededIds) {
+        Queue<Long> created = new ConcurrentLinkedQueue<>();
+        AtomicLong sequence = new AtomicLong();
+        return new Scenario("crud", List.of(
+                new Operation("get", 60, (operation, random) ->
+                        new Request(operation, get(base, "/api/items/" + seeded(random, seededIds)))),
+                new Operation("list", 10, (operation, random) ->
+                        new Request(operation, get(base, "/api/items?size=50&after=" + seeded(random, seededIds)))),
+                new Operation("create", 10, (operation, random) ->
+                        new Request(operation, json(base, "/api/items", "POST", itemJson("Created " + sequence.incrementAndGet())),
+                                body -> idOf(body, created))),
+                new Operation("update", 15, (operation, random) ->
+                        new Request(operation, json(base, "/api/items/" + seeded(random, seededIds), "PUT",
+                                itemJson("Updated " + sequence.incrementAndGet())))),
+                new Operation("delete", 5, (operation, random) -> {
+                    Long id = created.poll();
+                    // Nothing of ours to delete yet: ask for an ID that doesn't exist, still a full round trip.
+                    return new Request(operation, delete(base, "/api/items/" + (id == null ? Long.MAX_VALUE : id)));
+                })));
+    }
+
+    /**
+     * Processing runs over the whole table through GET /api/items/process.
+     */
+    static Scenario process(URI base) {
+        return new Scenario("process", List.of(
+                new Operation("process", 1, (operation, random) -> new Request(operation, get(base, "/api/items/process")))));
+    }
+
+    static String itemJson(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Load test item\",\"status\":\"PENDING\","
+                + "\"email\":\"load@loadtest.test\"}";
+    }
+
+    private static long seeded(ThreadLocalRandom random, long[] seededIds) {
+        return seededIds[random.nextInt(seededIds.length)];
+    }
+
+    private static void idOf(String body, Queue<Long> created) {
+        Matcher matcher = ID.matcher(body);
+        if (matcher.find()) {
+            created.add(Long.parseLong(matcher.group(1)));
+        }
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+    }
+
+    private static HttpRequest delete(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).DELETE().build();
+    }
+
+    private static HttpRequest json(URI base, String path, String method, String body) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
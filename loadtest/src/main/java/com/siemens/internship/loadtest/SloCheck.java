@@ -0,0 +1,83 @@
+package com.siemens.internship.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The latency SLOs a load test has to meet, read from slo.properties (or a file given with slo=...).
+ * Keys are &lt;operation&gt;.&lt;percentile&gt; with the percentile as p50, p99 or p999, e.g. get.p99=50ms,
+ * and apply to every run that has that operation. error-rate caps the share of 5xx and unanswered requests.
+ */
+final class SloCheck {
+
+    private static final String ERROR_RATE = "error-rate";
+
+    private final Properties slos;
+
+    private SloCheck(Properties slos) {
+        this.slos = slos;
+    }
+
+    static SloCheck load(String file) throws IOException {
+        Properties slos = new Properties();
+        if (file == null) {
+            try (InputStream in = SloCheck.class.getResourceAsStream("/slo.properties")) {
+                slos.load(in);
+            }
+        } else {
+            try (Reader in = Files.newBufferedReader(Path.of(file))) {
+                slos.load(in);
+            }
+        }
+        return new SloCheck(slos);
+    }
+
+    /**
+     * Every SLO the run missed, as readable messages; empty if it met all of them.
+     */
+    List<String> violations(String run, Map<String, LatencyRecorder.Result> results) {
+        List<String> violations = new ArrayList<>();
+        for (LatencyRecorder.Result result : results.values()) {
+            for (String percentile : List.of("p50", "p99", "p999")) {
+                String limit = slos.getProperty(result.operation() + "." + percentile);
+                if (limit == null) {
+                    continue;
+                }
+                Duration max = DurationStyle.detectAndParse(limit);
+                double actual = result.percentileMillis(percentileOf(percentile));
+                if (actual > max.toNanos() / 1_000_000.0) {
+                    violations.add(String.format("%s: %s %s was %.2f ms, the SLO is %s",
+                            run, result.operation(), percentile, actual, limit));
+                }
+            }
+            String maxErrorRate = slos.getProperty(ERROR_RATE);
+            if (maxErrorRate != null && result.count() > 0) {
+                double errorRate = (double) result.errors() / result.count();
+                if (errorRate > Double.parseDouble(maxErrorRate)) {
+                    violations.add(String.format("%s: %s error rate was %.4f, the SLO is %s",
+                            run, result.operation(), errorRate, maxErrorRate));
+                }
+            }
+        }
+        return violations;
+    }
+
+    private static double percentileOf(String key) {
+        return switch (key) {
+            case "p50" -> 50.0;
+            case "p99" -> 99.0;
+            case "p999" -> 99.9;
+            default -> throw new IllegalArgumentException("Unknown percentile " + key);
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.siemens.internship.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How requests are fired at the server. Both models send every request on its own virtual thread
+ * with a blocking HttpClient.send(), so the client side never runs out of threads before the server does.
+ */
+sealed interface Workload {
+
+    String name();
+
+    /**
+     * Sends requests from the scenario for the given time and records their latency.
+     */
+    void run(HttpClient client, Scenario scenario, Duration duration, LatencyRecorder recorder)
+            throws InterruptedException;
+
+    /**
+     * Closed model: a fixed number of users, each sending its next request only when the previous one is answered.
+     * The throughput follows the server's speed, which makes it good for "how fast can it go" numbers, but it
+     * under-reports latency under overload: a slow server simply gets fewer requests.
+     */
+    record Closed(int users) implements Workload {
+
+        @Override
+        public String name() {
+            return "closed-" + users + "-users";
+        }
+
+        @Override
+        public void run(HttpClient client, Scenario scenario, Duration duration, LatencyRecorder recorder) {
+            long end = System.nanoTime() + duration.toNanos();
+            try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int user = 0; user < users; user++) {
+                    threads.execute(() -> {
+                        while (System.nanoTime() - end < 0) {
+                            send(client, scenario.next(), System.nanoTime(), recorder);
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Open model: requests arrive at a fixed rate whether or not earlier ones have been answered, like real traffic.
+     * Latency is measured from when a request was due, not from when it was actually sent, so if the client or the
+     * server falls behind, the waiting counts too (no coordinated omission).
+     */
+    record Open(double requestsPerSecond) implements Workload {
+
+        @Override
+        public String name() {
+            return "open-" + Math.round(requestsPerSecond) + "-rps";
+        }
+
+        @Override
+        public void run(HttpClient client, Scenario scenario, Duration duration, LatencyRecorder recorder)
+                throws InterruptedException {
+            long interval = Math.round(1_000_000_000L / requestsPerSecond);
+            long start = System.nanoTime();
+            long count = duration.toNanos() / interval;
+            try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long i = 0; i < count; i++) {
+                    long due = start + i * interval;
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    Scenario.Request request = scenario.next();
+                    threads.execute(() -> send(client, request, due, recorder));
+                }
+            }
+        }
+    }
+
+    private static void send(HttpClient client, Scenario.Request request, long startNanos, LatencyRecorder recorder) {
+        int status;
+        String body = null;
+        try {
+            HttpResponse<String> response = client.send(request.request(), HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+        } catch (IOException e) {
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(request.operation(), System.nanoTime() - startNanos, status);
+        if (status >= 200 && status < 300) {
+            request.onResponse().accept(body);
+        }
+    }
+}
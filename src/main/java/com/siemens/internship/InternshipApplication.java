@@ -3,6 +3,7 @@ package com.siemens.internship;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * This is the main entry point of the Spring Boot application.
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * it scans for components, loads configurations, and starts the embedded web server.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class InternshipApplication {
 
     /**
@@ -0,0 +1,19 @@
+package com.siemens.internship.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Spring's cache abstraction.
+ * The cache itself (Caffeine, with its size bound, TTL and stats) is configured in application.properties
+ * through spring.cache.caffeine.spec, so it can be tuned without a rebuild.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Single items looked up by ID. Keyed by the item ID.
+     */
+    public static final String ITEMS_CACHE = "items";
+}
@@ -0,0 +1,20 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits for the bulk endpoints under /api/items/batch, bound from the "items.batch.*" properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.batch")
+public class ItemBatchProperties {
+
+    /**
+     * The most items (or IDs) a single bulk request may carry.
+     * Everything in one request is written in one transaction, so this also bounds transaction size.
+     */
+    private int maxSize = 5000;
+}
@@ -0,0 +1,29 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the item change feed (GET /api/items/changes), bound from the "items.changes.*" properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.changes")
+public class ItemChangeFeedProperties {
+
+    /**
+     * Whether item changes are written to the item_change outbox and served as the feed.
+     * The feed needs a single instance writing the items (see ItemChangeLog), so it has to be switched off
+     * to run a cluster (items.processing.cluster.enabled); the application refuses to start with both on.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The longest a long-polling request may wait for new changes. Keep it below the servlet container's
+     * async request timeout (30 seconds on Tomcat), or the container gives up on the request first.
+     */
+    private Duration maxWait = Duration.ofSeconds(25);
+}
@@ -0,0 +1,25 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning for GET /api/items/export, bound from the "items.export.*" properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.export")
+public class ItemExportProperties {
+
+    /**
+     * How many rows the JDBC driver pulls per round trip while the export walks the table.
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * Size of the one buffer every row is encoded into before it's written to the response channel.
+     * It's reused for the whole export, so memory stays the same no matter how many rows there are.
+     */
+    private int bufferSize = 64 * 1024;
+}
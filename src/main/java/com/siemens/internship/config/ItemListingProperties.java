@@ -0,0 +1,24 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paging limits for GET /api/items, bound from the "items.listing.*" properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.listing")
+public class ItemListingProperties {
+
+    /**
+     * Page size used when the client doesn't ask for one.
+     */
+    private int defaultPageSize = 100;
+
+    /**
+     * Hard cap on the page size, so no single request can pull the whole table.
+     */
+    private int maxPageSize = 1000;
+}
@@ -0,0 +1,233 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * All the knobs for item processing live here, bound from the "items.processing.*" properties.
+ * Keeping them in one place means we can tune a run from application.properties (or the command line)
+ * without touching the service code.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.processing")
+public class ItemProcessingProperties {
+
+    /**
+     * How processItemsAsync() walks the table.
+     * PER_ITEM is the original behaviour (one task, one select and one update per ID),
+     * CHUNKED pages through all IDs and reads/writes a whole chunk at a time,
+     * INCREMENTAL works like CHUNKED but only claims and processes PENDING items,
+     * PARTITIONED works like CHUNKED but shares the table out across all instances (see ClusterSettings).
+     */
+    private ProcessingMode mode = ProcessingMode.CHUNKED;
+
+    /**
+     * How many IDs we load and write together in CHUNKED mode.
+     * It should stay in line with hibernate.jdbc.batch_size so one chunk turns into a few JDBC batches.
+     */
+    private int chunkSize = 100;
+
+    /**
+     * Upper bound on the number of chunks being worked on at the same time.
+     * Only this many chunks are ever held in memory, so heap use doesn't grow with the table.
+     */
+    private int maxInFlightChunks = 4;
+
+    /**
+     * The simulated work we do for every item before marking it as processed.
+     */
+    private Duration itemDelay = Duration.ofMillis(100);
+
+    /**
+     * How many striped lanes each ItemProcessor stage gets, unless the stage asks for its own number.
+     * Items with the same ordering key share a lane, so this is also how many keys a stage works on at once.
+     */
+    private int stageParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * How long an INCREMENTAL run may hold a claimed item. Items still IN_PROGRESS after that
+     * are assumed abandoned (crashed run) and become PENDING again at the start of the next run.
+     */
+    private Duration claimLease = Duration.ofMinutes(10);
+
+    /**
+     * Whether chunked runs that were interrupted (crash or shutdown) are resumed from their checkpoint
+     * when the application starts.
+     */
+    private boolean resumeOnStartup = true;
+
+    /**
+     * Settings for the executor the processing tasks run on.
+     */
+    private ExecutorSettings executor = new ExecutorSettings();
+
+    /**
+     * How items from failed chunks are retried.
+     */
+    private RetrySettings retry = new RetrySettings();
+
+    /**
+     * How instances sharing the database work on PARTITIONED runs together.
+     */
+    private ClusterSettings cluster = new ClusterSettings();
+
+    /**
+     * The background processor, which processes pending items without anyone starting a run.
+     */
+    private BackgroundSettings background = new BackgroundSettings();
+
+    public enum ProcessingMode {
+        PER_ITEM,
+        CHUNKED,
+        INCREMENTAL,
+        PARTITIONED
+    }
+
+    public enum ExecutorType {
+        VIRTUAL,
+        PLATFORM
+    }
+
+    @Getter
+    @Setter
+    public static class ExecutorSettings {
+
+        /**
+         * VIRTUAL gives every task its own virtual thread, which suits our I/O and sleep bound work.
+         * PLATFORM is a classic fixed pool of poolSize threads.
+         */
+        private ExecutorType type = ExecutorType.VIRTUAL;
+
+        /**
+         * Number of threads in PLATFORM mode. Ignored for virtual threads.
+         */
+        private int poolSize = 10;
+
+        /**
+         * How many processing tasks may talk to the database at the same time.
+         * Zero means "the Hikari maximum pool size minus the API's reserved share", so virtual threads can never
+         * queue up more connection requests than the pool can serve, and never take the connections the API needs.
+         * An explicit limit must leave the API at least one connection.
+         */
+        private int maxDbConcurrency = 0;
+
+        /**
+         * The share of the connection pool kept for API requests when maxDbConcurrency is derived from the pool.
+         * It's rounded up, so the API always keeps at least one connection.
+         */
+        private double apiReservedShare = 0.25;
+    }
+
+    @Getter
+    @Setter
+    public static class RetrySettings {
+
+        /**
+         * How many times in total we try an item before we give up on it for this run.
+         * The first attempt is the one in its chunk, so the default allows four retries.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * The wait before the first retry. It doubles with every failed attempt, up to maxBackoff.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(1);
+
+        private Duration maxBackoff = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class ClusterSettings {
+
+        /**
+         * Whether this instance takes part in PARTITIONED runs: it joins the runs other instances start,
+         * keeps its leases alive, and takes over the work of instances whose leases ran out.
+         * PARTITIONED runs need it; the other modes assume a single instance whether it's on or not.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Identifies this instance in the lease columns. It must be different on every instance;
+         * the random default is, but something like the host or pod name is easier to read.
+         */
+        private String instanceId = UUID.randomUUID().toString();
+
+        /**
+         * How many consecutive item IDs make up one partition. A partition is the unit instances lease,
+         * so there should be several per instance for the work to spread evenly.
+         */
+        private long partitionSize = 10_000;
+
+        /**
+         * How long a partition (or a run's coordination) stays leased without a heartbeat.
+         * Once it has run out, another instance takes the work over from its last checkpoint.
+         */
+        private Duration lease = Duration.ofSeconds(30);
+
+        /**
+         * How often we renew our leases and look for runs to join or take over.
+         * It has to be well below the lease, or a slow heartbeat loses partitions we're still working on.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class BackgroundSettings {
+
+        /**
+         * Whether pending items are processed in the background (see BackgroundProcessor).
+         * Runs started through the API keep working either way.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Bounds for the batch size (IDs claimed and processed together). Batches start at chunkSize
+         * and move within these bounds with the observed database latency.
+         */
+        private int minBatchSize = 10;
+
+        private int maxBatchSize = 1000;
+
+        /**
+         * How much a batch grows after every full batch claimed without trouble.
+         */
+        private int batchSizeIncrement = 10;
+
+        /**
+         * Upper bound on the batches being processed at the same time. Concurrency starts at maxInFlightChunks
+         * and moves between one and this with the database latency and queue.
+         * It never goes above the processing tasks' database limit (executor.maxDbConcurrency), since batches
+         * past that would only queue for a permit.
+         */
+        private int maxConcurrency = 6;
+
+        /**
+         * Claiming a batch is a select and an update on the (status, id) index. When that takes longer than this,
+         * the database is struggling, and the batch size and concurrency are cut back.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(100);
+
+        /**
+         * The background processor steps aside while the API is busy: while API requests in flight reach this
+         * share of the adaptive request limit (items.rate-limit.concurrency), or anyone waits for a connection.
+         */
+        private double apiBusyRatio = 0.5;
+
+        /**
+         * How long to wait before looking again, once the API is busy.
+         */
+        private Duration pauseInterval = Duration.ofSeconds(1);
+
+        /**
+         * How long to wait before looking for pending items again, once there were none left.
+         */
+        private Duration idleInterval = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,109 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limits and load shedding for the /api/items endpoints, bound from the "items.rate-limit.*" properties.
+ * Cheap endpoints (single item reads and writes) and expensive ones (listing, search, export, batches, processing)
+ * have separate budgets, so a client paging through everything can't use up the budget for lookups.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.rate-limit")
+public class ItemRateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * The request header that identifies a client behind one of the trusted proxies.
+     * Everyone else is limited by their remote address, header or not: a client that could name itself
+     * would simply send a new name with every request and never run out of budget.
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Remote addresses (exactly as the servlet container reports them) whose clientHeader we believe,
+     * typically the reverse proxies or gateways in front of the application. Empty by default.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    private Budgets cheap = new Budgets(new Budget(200, 400), new Budget(5000, 10000));
+
+    private Budgets expensive = new Budgets(new Budget(10, 20), new Budget(100, 200));
+
+    private ConcurrencySettings concurrency = new ConcurrencySettings();
+
+    @Getter
+    @Setter
+    public static class Budgets {
+
+        /**
+         * What a single client may use.
+         */
+        private Budget perClient;
+
+        /**
+         * What all clients together may use.
+         */
+        private Budget global;
+
+        public Budgets() {
+        }
+
+        Budgets(Budget perClient, Budget global) {
+            this.perClient = perClient;
+            this.global = global;
+        }
+    }
+
+    /**
+     * A token bucket: it refills at rate requests per second and holds at most burst of them,
+     * so short spikes up to burst go through while the long-term average stays at rate.
+     */
+    @Getter
+    @Setter
+    public static class Budget {
+
+        private double rate;
+
+        private int burst;
+
+        public Budget() {
+        }
+
+        Budget(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class ConcurrencySettings {
+
+        /**
+         * How many requests may be in flight at the start. The limit then adapts between minLimit and maxLimit:
+         * it grows slowly while cheap requests stay fast, and drops by a tenth whenever one is slower than
+         * latencyThreshold.
+         */
+        private int initialLimit = 100;
+
+        private int minLimit = 10;
+
+        private int maxLimit = 400;
+
+        private Duration latencyThreshold = Duration.ofMillis(250);
+
+        /**
+         * Expensive requests are turned away while more than this many threads wait for a pooled connection,
+         * so a queue at the pool doesn't turn into timeouts for everybody.
+         */
+        private int maxPoolWaiters = 10;
+    }
+}
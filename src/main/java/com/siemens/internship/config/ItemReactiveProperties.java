@@ -0,0 +1,25 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The optional reactive (WebFlux) server, bound from the "items.reactive.*" properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.reactive")
+public class ItemReactiveProperties {
+
+    /**
+     * Whether to start the reactive server next to the servlet one.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The port the reactive server listens on. It serves the same /api/items read paths as the main port,
+     * so the two stacks can be compared side by side. 0 picks a free port.
+     */
+    private int port = 8081;
+}
@@ -0,0 +1,98 @@
+package com.siemens.internship.config;
+import com.siemens.internship.service.DbConcurrencyLimiter;
+
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Spring-managed executor for item processing.
+ * It replaces the static pool that used to live in ItemService: that one was hard-coded to 10 threads,
+ * ignored by @Async, and never shut down. Being a bean means it is configurable and gets closed with the context.
+ */
+@Configuration
+@EnableAsync
+public class ProcessingExecutorConfig {
+
+    public static final String ITEM_PROCESSING_EXECUTOR = "itemProcessingExecutor";
+
+    /**
+     * The executor every processing task runs on, and the one @Async("itemProcessingExecutor") uses.
+     * On context close, close() stops accepting new work and waits for the running tasks to finish,
+     * so we never leave half-written chunks behind on shutdown.
+     */
+    @Bean(name = ITEM_PROCESSING_EXECUTOR, destroyMethod = "close")
+    public ExecutorService itemProcessingExecutor(ItemProcessingProperties properties) {
+        ItemProcessingProperties.ExecutorSettings settings = properties.getExecutor();
+        if (settings.getType() == ItemProcessingProperties.ExecutorType.PLATFORM) {
+            return Executors.newFixedThreadPool(settings.getPoolSize(),
+                    Thread.ofPlatform().name("item-processing-", 0).factory());
+        }
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("item-processing-", 0).factory());
+    }
+
+    /**
+     * Caps how many processing tasks hold a database connection at once.
+     * If no explicit limit is configured we take the Hikari maximum pool size, minus the share reserved for the API:
+     * thousands of virtual threads would otherwise all block inside Hikari waiting for a connection
+     * and start failing with connection timeouts, and a big run would starve the API of connections.
+     * A configured limit that leaves the API nothing is refused at startup.
+     */
+    @Bean
+    public DbConcurrencyLimiter dbConcurrencyLimiter(ItemProcessingProperties properties, DataSource dataSource)
+            throws SQLException {
+        ItemProcessingProperties.ExecutorSettings settings = properties.getExecutor();
+        int limit = settings.getMaxDbConcurrency();
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return new DbConcurrencyLimiter(limit > 0 ? limit : settings.getPoolSize());
+        }
+        int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        if (limit <= 0) {
+            int reserved = (int) Math.ceil(poolSize * settings.getApiReservedShare());
+            limit = Math.max(1, poolSize - Math.max(1, reserved));
+        } else if (limit >= poolSize) {
+            throw new IllegalStateException("items.processing.executor.max-db-concurrency (" + limit
+                    + ") must stay below the connection pool size (" + poolSize + ") to leave the API a connection");
+        }
+        return new DbConcurrencyLimiter(limit);
+    }
+
+    /**
+     * Gauges for how busy processing is, so we can tell a slow run from a starved one.
+     * A platform pool reports the usual executor.* meters (active threads, queued tasks, pool size).
+     * Virtual threads have no pool and no queue, so there the DB permits are the interesting part:
+     * permits in use is how many tasks are talking to the database, and waiting is the real backlog.
+     * Hikari's own pool usage (hikaricp.connections.*) is bound by Spring Boot already.
+     */
+    @Bean
+    public MeterBinder itemProcessingExecutorMetrics(
+            @Qualifier(ITEM_PROCESSING_EXECUTOR) ExecutorService itemProcessingExecutor,
+            DbConcurrencyLimiter dbConcurrencyLimiter) {
+        return registry -> {
+            if (itemProcessingExecutor instanceof ThreadPoolExecutor pool) {
+                new ExecutorServiceMetrics(pool, ITEM_PROCESSING_EXECUTOR, Tags.empty()).bindTo(registry);
+            }
+            Gauge.builder("items.processing.db.permits.active", dbConcurrencyLimiter,
+                            limiter -> limiter.getLimit() - limiter.getAvailablePermits())
+                    .description("Processing tasks currently holding a database permit")
+                    .register(registry);
+            Gauge.builder("items.processing.db.permits.waiting", dbConcurrencyLimiter,
+                            DbConcurrencyLimiter::getQueueLength)
+                    .description("Processing tasks waiting for a database permit")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Admission limits for processing jobs, bound from the "items.jobs.*" properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.jobs")
+public class ProcessingJobProperties {
+
+    /**
+     * How many jobs may run at the same time. Each job already runs its chunks in parallel,
+     * so one at a time is usually right – more would just fight over the same rows and connections.
+     */
+    private int maxConcurrentJobs = 1;
+
+    /**
+     * How many accepted jobs may wait for a free slot. Once the queue is full, new jobs are rejected with 429.
+     */
+    private int queueCapacity = 10;
+
+    /**
+     * How many finished jobs we keep around so clients can still read their final counts.
+     */
+    private int retainedJobs = 100;
+}
@@ -0,0 +1,42 @@
+package com.siemens.internship.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Wiring for the reactive read path.
+ * The application itself stays a servlet (Spring MVC) application; the reactive routes run on their own
+ * Netty server on items.reactive.port, where a slow client costs a buffered connection instead of a blocked
+ * Tomcat thread.
+ */
+@Configuration
+public class ReactiveConfig {
+
+    /**
+     * The Netty server for the reactive routes, only started with items.reactive.enabled=true.
+     * It encodes JSON with the application's ObjectMapper, so both stacks write items the same way.
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "items.reactive", name = "enabled", havingValue = "true")
+    public WebServer reactiveItemServer(RouterFunction<ServerResponse> itemRoutes,
+                                        ItemReactiveProperties properties, ObjectMapper objectMapper) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        return new NettyReactiveWebServerFactory(properties.getPort())
+                .getWebServer(RouterFunctions.toHttpHandler(itemRoutes, strategies));
+    }
+}
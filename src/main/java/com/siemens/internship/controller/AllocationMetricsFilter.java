@@ -0,0 +1,96 @@
+package com.siemens.internship.controller;
+
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures how much memory the JVM allocates to answer each /api/items request, from reading the request to
+ * writing (and compressing) the last byte of the response, and records it in the items.response.allocation
+ * distribution summary, tagged with the endpoint's URI pattern and method. It's the number to watch when
+ * a change is meant to take load off the garbage collector; its mean times the request rate is the allocation rate.
+ * The figure comes from HotSpot's per-thread allocation counter, which is cheap enough to read twice per request.
+ * It only sees the servlet threads: async requests are counted across their dispatches, but what streaming responses
+ * write from worker threads (export, /process/stream) isn't included.
+ */
+@Component
+public class AllocationMetricsFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "items.response.allocation";
+
+    private static final String API_PREFIX = "/api/items";
+    // Bytes allocated by earlier dispatches of an async request.
+    private static final String ALLOCATED_ATTRIBUTE = AllocationMetricsFilter.class.getName() + ".allocated";
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // The summaries by URI pattern and method, registered on first use. A lookup here allocates nothing,
+    // unlike building and registering the meter on every request, which would skew the very figure we record.
+    private final Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !threads.isThreadAllocatedMemoryEnabled()
+                || !request.getRequestURI().substring(request.getContextPath().length()).startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = threads.getCurrentThreadAllocatedBytes();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long end = threads.getCurrentThreadAllocatedBytes();
+            if (start >= 0 && end >= start) {
+                long allocated = end - start;
+                if (request.getAttribute(ALLOCATED_ATTRIBUTE) instanceof Long earlier) {
+                    allocated += earlier;
+                }
+                if (isAsyncStarted(request)) {
+                    request.setAttribute(ALLOCATED_ATTRIBUTE, allocated);
+                } else {
+                    record(request, allocated);
+                }
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long allocated) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        Map<String, DistributionSummary> byMethod = summaries.computeIfAbsent(uri, ignored -> new ConcurrentHashMap<>());
+        DistributionSummary summary = byMethod.get(request.getMethod());
+        if (summary == null) {
+            summary = byMethod.computeIfAbsent(request.getMethod(), method -> DistributionSummary.builder(METRIC)
+                    .description("Bytes allocated on the servlet threads to answer one request")
+                    .baseUnit("bytes")
+                    .tag("uri", uri)
+                    .tag("method", method)
+                    .register(registry));
+        }
+        summary.record(allocated);
+    }
+}
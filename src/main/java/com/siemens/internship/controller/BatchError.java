@@ -0,0 +1,9 @@
+package com.siemens.internship.controller;
+
+/**
+ * One problem found while validating a bulk request.
+ * The index points at the offending element of the request body, so clients know exactly which row to fix.
+ * The field is null when the problem is about the element as a whole (e.g. an unknown ID).
+ */
+public record BatchError(int index, String field, String message) {
+}
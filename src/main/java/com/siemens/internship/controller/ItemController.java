@@ -1,34 +1,229 @@
 package com.siemens.internship.controller;
+import com.siemens.internship.config.ItemBatchProperties;
+import com.siemens.internship.config.ItemChangeFeedProperties;
+import com.siemens.internship.config.ItemListingProperties;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemSearch;
+import com.siemens.internship.service.ItemChangeLog;
+import com.siemens.internship.service.ItemExportFormat;
+import com.siemens.internship.service.ItemExportService;
+import com.siemens.internship.service.ItemJsonPage;
+import com.siemens.internship.service.ItemListingService;
 import com.siemens.internship.service.ItemService;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.MediaType;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/items")
 public class ItemController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ItemExportService exportService;
+
+    @Autowired
+    private ItemListingService listingService;
+
+    @Autowired
+    private ItemListingProperties listingProperties;
+
+    @Autowired
+    private ItemBatchProperties batchProperties;
+
+    @Autowired
+    private ItemChangeLog changeLog;
+
+    @Autowired
+    private ItemChangeFeedProperties changeFeedProperties;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter chunkItemWriter;
+
+    /**
+     * Items of a streamed chunk are written back to back into one generator, which we flush once per chunk.
+     */
+    @PostConstruct
+    void initChunkItemWriter() {
+        chunkItemWriter = objectMapper.writerFor(Item.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
     /**
-     * This endpoint simply returns the list of all items from the database.
-     * It's a basic GET request that wraps the result in a 200 OK response.
+     * This endpoint returns the items one page at a time, using keyset (cursor) pagination.
+     * Pass the ID of the last item you've seen as ?after= to get the next page; the response carries
+     * that cursor for you in the X-Next-Cursor header, and leaves it out on the last page.
+     * Unlike offset paging, the database seeks straight to the cursor, so page 10.000 is as fast as page 1.
+     * The page size is capped by items.listing.max-page-size so one call can't pull the whole table.
+     * With ?fields=id,name,status we only select and return those fields – dashboards that only need the status
+     * never touch the description column.
+     * The page is written to the response straight from the JDBC rows while they're read (see ItemJsonPage),
+     * so a page of a thousand items never exists as a thousand entities.
      */
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        return ResponseEntity.ok(itemService.findAll());
+    public ResponseEntity<?> getAllItems(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(required = false) String fields) {
+        int pageSize = size == null ? listingProperties.getDefaultPageSize() : size;
+        if (pageSize < 1) {
+            return ResponseEntity.badRequest().body("Page size must be at least 1");
+        }
+        pageSize = Math.min(pageSize, listingProperties.getMaxPageSize());
+        long cursor = after == null ? 0L : after;
+
+        List<String> selected = ItemListingService.ALL_FIELDS;
+        if (fields != null) {
+            try {
+                selected = ItemFields.parse(fields).names();
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+        ItemJsonPage page = listingService.page(cursor, pageSize, selected);
+        return withNextCursor(page.getNextCursor()).body(page);
+    }
+
+    /**
+     * Searches items by status, exact email (?email=) or email prefix (?emailPrefix=), and by words in the name or
+     * description (?q=, all words must match). Filters can be combined; at least one is required.
+     * Every filter is answered from an index (see ItemRepositoryCustomImpl.search), never by scanning the table,
+     * and results are paged with ?after= and ?size= exactly like the listing, including the X-Next-Cursor header.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchItems(@RequestParam(required = false) ItemStatus status,
+                                         @RequestParam(required = false) String email,
+                                         @RequestParam(required = false) String emailPrefix,
+                                         @RequestParam(required = false) String q,
+                                         @RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Integer size) {
+        if (status == null && isBlank(email) && isBlank(emailPrefix) && isBlank(q)) {
+            return ResponseEntity.badRequest().body("At least one of status, email, emailPrefix or q is required");
+        }
+        int pageSize = size == null ? listingProperties.getDefaultPageSize() : size;
+        if (pageSize < 1) {
+            return ResponseEntity.badRequest().body("Page size must be at least 1");
+        }
+        pageSize = Math.min(pageSize, listingProperties.getMaxPageSize());
+
+        ItemSearch search = new ItemSearch(status, blankToNull(email), blankToNull(emailPrefix), blankToNull(q));
+        List<Item> page = itemService.search(search, after == null ? 0L : after, pageSize);
+        Long next = page.size() == pageSize ? page.get(page.size() - 1).getId() : null;
+        return withNextCursor(next).body(page);
+    }
+
+    /**
+     * Exports every item as CSV (the default) or, with ?format=binary, as the compact length-prefixed format
+     * described on ItemExportFormat. Rows are streamed from a database cursor straight into the response,
+     * so the server's memory use doesn't grow with the size of the table.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestParam(defaultValue = "csv") String format) {
+        ItemExportFormat exportFormat;
+        try {
+            exportFormat = ItemExportFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            // The return type has to be a StreamingResponseBody for Spring to stream it, so the error is one too.
+            byte[] message = ("Unknown export format: " + format).getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(out -> out.write(message));
+        }
+        StreamingResponseBody body = out -> exportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"items." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    /**
+     * The change feed: every create, update, delete and processing of an item since ?since= (a sequence number),
+     * oldest first and paged like the listing. Consumers keep the X-Next-Cursor header of every answer and send it
+     * back as ?since=, so each poll only reads what changed in between instead of the whole table.
+     * With ?wait=<seconds> the request long-polls: if nothing changed yet, the answer comes as soon as something
+     * does, or empty after the wait (capped by items.changes.max-wait). The servlet thread is released meanwhile.
+     */
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<?>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                           @RequestParam(required = false) Integer size,
+                                                           @RequestParam(defaultValue = "0") long wait) {
+        if (!changeLog.isEnabled()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.NOT_FOUND).body("The change feed is disabled"));
+        }
+        int pageSize = size == null ? listingProperties.getDefaultPageSize() : size;
+        if (pageSize < 1) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Page size must be at least 1"));
+        }
+        if (since < 0 || wait < 0) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body("since and wait must not be negative"));
+        }
+        pageSize = Math.min(pageSize, listingProperties.getMaxPageSize());
+        Duration maxWait = changeFeedProperties.getMaxWait();
+        Duration waitFor = Duration.ofSeconds(wait).compareTo(maxWait) > 0 ? maxWait : Duration.ofSeconds(wait);
+        return changeLog.awaitChangesSince(since, pageSize, waitFor)
+                .thenApply(changes -> {
+                    long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).seq();
+                    return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, String.valueOf(next)).body(changes);
+                });
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String blankToNull(String value) {
+        return isBlank(value) ? null : value.trim();
+    }
+
+    private ResponseEntity.BodyBuilder withNextCursor(Long next) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (next != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(next));
+        }
+        return response;
     }
 
     /**
@@ -36,6 +231,7 @@ public class ItemController {
      * We first check if the incoming item passes validation rules (like not being null, or having a valid email).
      * If any validation errors are present, we send back a 400 Bad Request along with the list of problems.
      * Otherwise, we save the item and return it with a 201 Created status.
+     * POST always creates: an ID in the body is ignored, updates go through PUT or PATCH.
      */
     @PostMapping
     public ResponseEntity<?> createItem(@Valid @RequestBody Item item, BindingResult result) {
@@ -43,20 +239,161 @@ public class ItemController {
             return ResponseEntity.badRequest().body("Invalid item data: " + result.getAllErrors());
         }
 
+        item.setId(null);
         Item savedItem = itemService.save(item);
-        return new ResponseEntity<>(savedItem, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ItemETags.of(savedItem)).body(savedItem);
+    }
+
+    /**
+     * Bulk version of POST /api/items for clients that load many items at once.
+     * We validate every element in one pass and, if anything is wrong, answer 400 with one entry per problem
+     * (index in the request, field and message) – nothing is saved in that case.
+     * Otherwise all items are inserted in a single transaction using JDBC batching, and we return them with their IDs.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createItems(@RequestBody List<Item> items) {
+        if (items.size() > batchProperties.getMaxSize()) {
+            return batchTooLarge();
+        }
+        List<BatchError> errors = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            validate(i, items.get(i), errors);
+        }
+        if (!errors.isEmpty()) {
+            return batchErrors(errors);
+        }
+        return new ResponseEntity<>(itemService.createAll(items), HttpStatus.CREATED);
+    }
+
+    /**
+     * Bulk partial update. Every element must carry the ID of an existing item; any other field that is
+     * present overwrites the stored value, and missing (null) fields are left alone.
+     * The merged items are validated together, and only if all of them pass are they written –
+     * in one transaction, as batched updates. If one of the items changed since we loaded it
+     * (processing ran over it, for example), nothing is written and we answer 409 so the client can retry.
+     */
+    @PatchMapping("/batch")
+    public ResponseEntity<?> updateItems(@RequestBody List<Item> changes) {
+        if (changes.size() > batchProperties.getMaxSize()) {
+            return batchTooLarge();
+        }
+        List<BatchError> errors = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < changes.size(); i++) {
+            Long id = changes.get(i).getId();
+            if (id == null) {
+                errors.add(new BatchError(i, "id", "ID is required"));
+            } else if (!ids.add(id)) {
+                errors.add(new BatchError(i, "id", "Duplicate ID " + id));
+            }
+        }
+        if (!errors.isEmpty()) {
+            return batchErrors(errors);
+        }
+
+        Map<Long, Item> existing = itemService.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> merged = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            Item current = existing.get(changes.get(i).getId());
+            if (current == null) {
+                errors.add(new BatchError(i, null, "Item not found"));
+                continue;
+            }
+            applyChanges(current, changes.get(i));
+            validate(i, current, errors);
+            merged.add(current);
+        }
+        if (!errors.isEmpty()) {
+            return batchErrors(errors);
+        }
+        try {
+            return ResponseEntity.ok(itemService.updateAll(merged));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Some of the items were changed concurrently, please retry");
+        }
+    }
+
+    /**
+     * Bulk delete by ID list. Unknown IDs are reported per element and nothing is deleted;
+     * otherwise all rows go away with a single DELETE statement and we answer 204.
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteItems(@RequestBody List<Long> ids) {
+        if (ids.size() > batchProperties.getMaxSize()) {
+            return batchTooLarge();
+        }
+        Set<Long> existing = new HashSet<>(itemService.findExistingIds(ids));
+        List<BatchError> errors = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (!existing.contains(ids.get(i))) {
+                errors.add(new BatchError(i, null, "Item not found"));
+            }
+        }
+        if (!errors.isEmpty()) {
+            return batchErrors(errors);
+        }
+        itemService.deleteAllById(ids);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Runs the same bean validation as @Valid does on the single-item endpoints, and records
+     * every violation against the element's index.
+     */
+    private void validate(int index, Item item, List<BatchError> errors) {
+        if (item == null) {
+            errors.add(new BatchError(index, null, "Item cannot be null"));
+            return;
+        }
+        for (ConstraintViolation<Item> violation : validator.validate(item)) {
+            errors.add(new BatchError(index, violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+    }
+
+    /**
+     * Copies every non-null field of the change onto the stored item.
+     */
+    private void applyChanges(Item target, Item changes) {
+        if (changes.getName() != null) {
+            target.setName(changes.getName());
+        }
+        if (changes.getDescription() != null) {
+            target.setDescription(changes.getDescription());
+        }
+        if (changes.getStatus() != null) {
+            target.setStatus(changes.getStatus());
+        }
+        if (changes.getEmail() != null) {
+            target.setEmail(changes.getEmail());
+        }
+    }
+
+    private ResponseEntity<?> batchErrors(List<BatchError> errors) {
+        return ResponseEntity.badRequest().body(Map.of("errors", errors));
+    }
+
+    private ResponseEntity<?> batchTooLarge() {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body("A batch may contain at most " + batchProperties.getMaxSize() + " elements");
     }
 
     /**
      * This is a simple lookup by ID.
-     * If the item exists, we return it with 200 OK.
+     * If the item exists, we return it with 200 OK and its version as the ETag.
+     * If the client already has that version (If-None-Match), we answer 304 Not Modified without a body.
      * If not, we let the client know that the item wasn’t found by returning a 404 Not Found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getItemById(@PathVariable Long id) {
+    public ResponseEntity<?> getItemById(@PathVariable Long id, WebRequest request) {
         Optional<Item> itemOpt = itemService.findById(id);
         if (itemOpt.isPresent()) {
-            return ResponseEntity.ok(itemOpt.get());
+            String eTag = ItemETags.of(itemOpt.get());
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            return ResponseEntity.ok().eTag(eTag).body(itemOpt.get());
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
         }
@@ -65,24 +402,88 @@ public class ItemController {
     /**
      * This method is used to update an existing item.
      * We first validate the input – if it fails, we immediately respond with 400 Bad Request.
-     * Then we check if the item actually exists in the database.
-     * If it does, we overwrite it using the same ID and return the updated version.
-     * If not, we respond with a 404 so the client knows there's nothing to update.
+     * Then we check if the item actually exists in the database, and respond with 404 if it doesn't.
+     * The write is version-checked: with an If-Match header against the version the client read,
+     * otherwise against the version we just looked up. Hibernate compares it with the row when it writes,
+     * so if someone else (e.g. processing) changed the item in between, nothing is overwritten and we answer
+     * 412 Precondition Failed (or 409 Conflict when the client didn't send If-Match).
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateItem(@PathVariable Long id, @Valid @RequestBody Item item, BindingResult result) {
+    public ResponseEntity<?> updateItem(@PathVariable Long id, @Valid @RequestBody Item item, BindingResult result,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (result.hasErrors()) {
             return ResponseEntity.badRequest().body("Invalid item data: " + result.getAllErrors());
         }
+        Long expectedVersion;
+        try {
+            expectedVersion = ifMatch == null ? null : ItemETags.parse(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
         Optional<Item> existing = itemService.findById(id);
-        if (existing.isPresent()) {
-            item.setId(id);
+        if (existing.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
+        }
+        item.setId(id);
+        item.setVersion(expectedVersion != null ? expectedVersion : existing.get().getVersion());
+        try {
             Item updated = itemService.save(item);
-            return ResponseEntity.ok(updated);
-        } else {
+            return ResponseEntity.ok().eTag(ItemETags.of(updated)).body(updated);
+        } catch (OptimisticLockingFailureException e) {
+            return versionMismatch(ifMatch != null);
+        }
+    }
+
+    /**
+     * Partial update of a single item. Only the fields present (non-null) in the body are validated and written,
+     * with one UPDATE of just those columns – no select first, and a concurrent change to another column
+     * (like processing setting the status) is never overwritten.
+     * With If-Match the update only happens if the item still has that version; we answer 204 with the new ETag,
+     * or 412 if the version moved on. Without If-Match the fields are simply written.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchItem(@PathVariable Long id, @RequestBody Item changes,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (changes.getName() == null && changes.getDescription() == null
+                && changes.getStatus() == null && changes.getEmail() == null) {
+            return ResponseEntity.badRequest().body("Nothing to update");
+        }
+        // Missing fields are left alone, so only the ones that were sent are validated.
+        List<String> errors = new ArrayList<>();
+        if (changes.getName() != null) {
+            validator.validateProperty(changes, "name").forEach(violation -> errors.add(violation.getMessage()));
+        }
+        if (changes.getEmail() != null) {
+            validator.validateProperty(changes, "email").forEach(violation -> errors.add(violation.getMessage()));
+        }
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body("Invalid item data: " + errors);
+        }
+        Long expectedVersion;
+        try {
+            expectedVersion = ifMatch == null ? null : ItemETags.parse(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        if (itemService.patch(id, changes, expectedVersion)) {
+            ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+            if (expectedVersion != null) {
+                response.eTag(ItemETags.of(expectedVersion + 1));
+            }
+            return response.build();
+        }
+        // Nothing was updated – either the item is gone or its version didn't match.
+        if (!itemService.existsById(id)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found");
         }
+        return versionMismatch(true);
+    }
+
+    private ResponseEntity<?> versionMismatch(boolean conditional) {
+        return ResponseEntity.status(conditional ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                .body("Item was changed concurrently, fetch it again and retry");
     }
 
     /**
@@ -117,5 +518,44 @@ public class ItemController {
                     .body(items));
     }
 
+    /**
+     * Streaming variant of /process.
+     * Instead of waiting for the whole run and serialising one big list, we write every processed chunk
+     * to the response as soon as it's committed, one JSON object per line (NDJSON).
+     * The server only ever holds the chunks currently in flight, and clients start receiving items
+     * after the first chunk instead of after the whole table.
+     */
+    @GetMapping(value = "/process/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> processItemsStream() {
+        StreamingResponseBody body = out -> itemService
+                .processItemsInChunks(chunk -> writeChunk(out, chunk))
+                .join();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 
+    /**
+     * Chunks complete on different worker threads, so writes to the shared stream are synchronized
+     * to keep the lines from interleaving. We flush after every chunk so it reaches the client right away.
+     * The whole chunk goes through one generator and its buffer, so it reaches the stream in one write instead of
+     * a byte array and two writes per item.
+     */
+    private void writeChunk(OutputStream out, List<Item> chunk) {
+        try {
+            synchronized (out) {
+                try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                    gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    gen.setRootValueSeparator(null);
+                    for (Item item : chunk) {
+                        chunkItemWriter.writeValue(gen, item);
+                        gen.writeRaw('\n');
+                    }
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream processed items", e);
+        }
+    }
 }
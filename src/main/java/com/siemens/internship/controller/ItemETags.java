@@ -0,0 +1,42 @@
+package com.siemens.internship.controller;
+import com.siemens.internship.model.Item;
+
+/**
+ * ETags for single items. The ETag is simply the item's version in quotes,
+ * so checking an If-Match header against the stored row is a plain version comparison.
+ */
+final class ItemETags {
+
+    private ItemETags() {
+    }
+
+    static String of(Item item) {
+        return of(item.getVersion());
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The version an If-Match header asks for, or null for "*" (any current version).
+     * Weak validators (W/"3") are accepted too. Anything else is rejected with an IllegalArgumentException.
+     */
+    static Long parse(String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new IllegalArgumentException("Malformed If-Match header: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed If-Match header: " + ifMatch);
+        }
+    }
+}
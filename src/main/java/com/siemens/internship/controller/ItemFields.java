@@ -0,0 +1,52 @@
+package com.siemens.internship.controller;
+import com.siemens.internship.service.ItemListingService;
+
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The parsed value of the ?fields= parameter on the item listing: which fields to select and return, in order.
+ */
+class ItemFields {
+
+    private static final Set<String> ALL = Set.copyOf(ItemListingService.ALL_FIELDS);
+
+    private final Set<String> fields;
+
+    private ItemFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a comma separated list like "id,name,status".
+     * Unknown names are rejected with an IllegalArgumentException rather than silently ignored,
+     * so a typo doesn't look like a missing value to the client.
+     */
+    static ItemFields parse(String value) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : value.split(",")) {
+            if (!field.isBlank()) {
+                fields.add(field.trim());
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested");
+        }
+        List<String> unknown = fields.stream().filter(field -> !ALL.contains(field)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown field(s): " + String.join(", ", unknown)
+                    + ". Allowed fields are " + Arrays.toString(ALL.stream().sorted().toArray()));
+        }
+        return new ItemFields(fields);
+    }
+
+    /**
+     * The requested fields, in the order they were requested.
+     */
+    List<String> names() {
+        return List.copyOf(fields);
+    }
+}
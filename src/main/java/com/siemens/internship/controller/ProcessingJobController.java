@@ -0,0 +1,80 @@
+package com.siemens.internship.controller;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.service.JobRejectedException;
+import com.siemens.internship.service.ProcessingJob;
+import com.siemens.internship.service.ProcessingJobService;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.UUID;
+
+/**
+ * Job-based processing API.
+ * Instead of keeping GET /api/items/process open until the whole run is done, clients start a job,
+ * poll it for progress, and can cancel it at any time.
+ */
+@RestController
+@RequestMapping("/api/items/process/jobs")
+public class ProcessingJobController {
+
+    @Autowired
+    private ProcessingJobService jobService;
+
+    @Autowired
+    private ItemProcessingProperties processingProperties;
+
+    /**
+     * Starts a new processing job and answers right away with 202 Accepted, the job's current state,
+     * and its URL in the Location header. The mode defaults to items.processing.mode.
+     * If the job queue is full we answer 429 with a Retry-After hint instead of queueing more work.
+     * Jobs work in chunks, so PER_ITEM (asked for, or configured as the default) is a 400;
+     * GET /api/items/process still takes the per-item path when that's the configured mode.
+     */
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestParam(required = false) ProcessingMode mode) {
+        ProcessingMode jobMode = mode != null ? mode : processingProperties.getMode();
+        if (jobMode == ProcessingMode.PER_ITEM) {
+            return ResponseEntity.badRequest().body("Processing jobs don't support PER_ITEM mode");
+        }
+        ProcessingJob job;
+        try {
+            job = jobService.submit(jobMode);
+        } catch (JobRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(e.getMessage());
+        }
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+
+    /**
+     * Progress of a job: state, total/processed/failed counts and throughput in items per second.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable UUID id) {
+        return jobService.find(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Job not found"));
+    }
+
+    /**
+     * Cancels a job. Queued jobs never start; running jobs stop taking new chunks and interrupt the ones in flight.
+     * We return the job as it is right after the request – a running job shows CANCELLED once its workers are done.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelJob(@PathVariable UUID id) {
+        return jobService.cancel(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Job not found"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.siemens.internship.controller;
+import com.siemens.internship.config.ItemRateLimitProperties;
+import com.siemens.internship.service.RequestAdmission;
+import com.siemens.internship.service.RequestAdmission.Cost;
+import com.siemens.internship.service.RequestAdmission.Decision;
+
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Rate limiting and load shedding in front of every /api/items endpoint (see RequestAdmission).
+ * A client over its own or the global budget gets 429, an overloaded server answers 503; both come with a
+ * Retry-After header. We answer before the request reaches a controller, so a rejected request costs
+ * no database work at all.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/items";
+
+    @Autowired
+    private RequestAdmission admission;
+
+    @Autowired
+    private ItemRateLimitProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !pathOf(request).startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Cost cost = costOf(request.getMethod(), pathOf(request));
+        Decision decision = admission.admit(clientOf(request), cost);
+        if (!decision.admitted()) {
+            reject(response, decision);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming and long-polling requests carry on without a servlet thread; how long they take
+                // says nothing about load, so they just give their slot back.
+                admission.release();
+            } else {
+                admission.release(cost, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Expensive are the requests whose work grows with the table or the request body: listing, search, export,
+     * the batch endpoints and processing. Single-item reads and writes, job status and the change feed are cheap.
+     */
+    static Cost costOf(String method, String path) {
+        String rest = path.substring(API_PREFIX.length());
+        if (rest.isEmpty() || rest.equals("/")) {
+            return HttpMethod.GET.matches(method) ? Cost.EXPENSIVE : Cost.CHEAP;
+        }
+        if (rest.startsWith("/process/jobs")) {
+            return HttpMethod.POST.matches(method) ? Cost.EXPENSIVE : Cost.CHEAP;
+        }
+        if (rest.startsWith("/process") || rest.equals("/search") || rest.equals("/export") || rest.equals("/batch")) {
+            return Cost.EXPENSIVE;
+        }
+        return Cost.CHEAP;
+    }
+
+    /**
+     * The remote address, or the client header when the request comes through one of the trusted proxies.
+     */
+    private String clientOf(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!properties.getTrustedProxies().contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String client = request.getHeader(properties.getClientHeader());
+        return client == null || client.isBlank() ? remoteAddr : client;
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static void reject(HttpServletResponse response, Decision decision) throws IOException {
+        HttpStatus status = decision.outcome() == RequestAdmission.Outcome.OVERLOADED
+                ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.TOO_MANY_REQUESTS;
+        // Retry-After is in whole seconds; round up so clients don't come back too early.
+        long retryAfter = Math.max(1L, (decision.retryAfter().toMillis() + 999) / 1000);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(status == HttpStatus.TOO_MANY_REQUESTS
+                ? "Too many requests, please retry later"
+                : "The server is overloaded, please retry later");
+    }
+}
@@ -0,0 +1,102 @@
+package com.siemens.internship.controller;
+import com.siemens.internship.config.ItemListingProperties;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ReactiveItemService;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Functional WebFlux routes for the read side of /api/items, served by the reactive server (see ReactiveConfig).
+ * They keep the contract of ItemController, so the same client can be pointed at either port:
+ * GET /api/items (keyset pages with ?after=, ?size= and the X-Next-Cursor header),
+ * GET /api/items/{id} (with ETag and If-None-Match), and GET /api/items/process and /process/stream.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "items.reactive", name = "enabled", havingValue = "true")
+public class ReactiveItemRoutes {
+
+    @Autowired
+    private ReactiveItemService itemService;
+
+    @Autowired
+    private ItemListingProperties listingProperties;
+
+    @Bean
+    public RouterFunction<ServerResponse> itemRoutes() {
+        // /process has to come before /{id}, or "process" would be taken for an ID.
+        return route()
+                .path("/api/items", builder -> builder
+                        .GET("/process/stream", request -> processItems(MediaType.APPLICATION_NDJSON))
+                        .GET("/process", request -> processItems(MediaType.APPLICATION_JSON))
+                        .GET("/{id}", this::getItemById)
+                        .GET("", this::getAllItems))
+                .build();
+    }
+
+    /**
+     * One page of items. A page is capped by items.listing.max-page-size, so we collect it before answering:
+     * the X-Next-Cursor header depends on the last item, and headers go out before the body.
+     * ?fields= projections are only available on the servlet API.
+     */
+    private Mono<ServerResponse> getAllItems(ServerRequest request) {
+        if (request.queryParam("fields").isPresent()) {
+            return ServerResponse.badRequest().bodyValue("?fields= is not supported by the reactive API");
+        }
+        int pageSize;
+        long cursor;
+        try {
+            pageSize = request.queryParam("size").map(Integer::parseInt).orElse(listingProperties.getDefaultPageSize());
+            cursor = request.queryParam("after").map(Long::parseLong).orElse(0L);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue("after and size must be numbers");
+        }
+        if (pageSize < 1) {
+            return ServerResponse.badRequest().bodyValue("Page size must be at least 1");
+        }
+        int size = Math.min(pageSize, listingProperties.getMaxPageSize());
+        return itemService.findPage(cursor, size).collectList().flatMap(page -> {
+            ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON);
+            if (page.size() == size) {
+                response.header(ItemController.NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+            }
+            return response.bodyValue(page);
+        });
+    }
+
+    private Mono<ServerResponse> getItemById(ServerRequest request) {
+        long id;
+        try {
+            id = Long.parseLong(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue("Item ID must be a number");
+        }
+        return itemService.findById(id)
+                .flatMap(item -> {
+                    String eTag = ItemETags.of(item);
+                    // checkNotModified() answers 304 if the client's If-None-Match matches, and is empty otherwise.
+                    return request.checkNotModified(eTag)
+                            .switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(eTag).bodyValue(item)));
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue("Item not found")));
+    }
+
+    /**
+     * Processed items are written as they come out of the run, with backpressure all the way down:
+     * the run only goes as fast as the client reads (see ReactiveItemService.processItems).
+     */
+    private Mono<ServerResponse> processItems(MediaType mediaType) {
+        return ServerResponse.ok().contentType(mediaType).body(itemService.processItems(), Item.class);
+    }
+}
@@ -2,10 +2,20 @@ package com.siemens.internship.model;
 
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Column;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 
 import jakarta.validation.constraints.Email;
@@ -16,15 +26,28 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_item_status_id", columnList = "status, id"),
+        @Index(name = "idx_item_email", columnList = "email")
+})
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonSerialize(using = ItemJsonSerializer.class)
 public class Item {
 
+    /**
+     * IDs come from a pooled sequence: Hibernate reserves 100 values per round trip,
+     * which matches our JDBC batch size. With IDENTITY columns Hibernate would have to
+     * insert rows one by one to learn each ID, and batched inserts wouldn't be possible.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 100)
     private Long id;
 
     /**
@@ -42,10 +65,13 @@ public class Item {
 
     /**
      * We'll use this to track the item's processing status.
-     * For example, it could be set to "PENDING" by default, and updated to "PROCESSED" later.
-     * It's not validated here, but you could enforce allowed values if needed.
+     * New items default to PENDING (see defaultStatus()), and processing moves them through IN_PROGRESS to PROCESSED.
+     * It's stored by name and indexed together with the ID, so "give me the next pending items"
+     * is an index seek instead of a full table scan.
      */
-    private String status;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ItemStatus status;
 
     /**
      * Email is required and needs to be in a valid email format.
@@ -57,5 +83,52 @@ public class Item {
     @NotBlank(message = "Email cannot be blank")
     @Email(message = "Email must be valid")
     private String email;
-}
 
+    /**
+     * Which processing run currently holds this item, set together with IN_PROGRESS when the item is claimed.
+     * It's internal bookkeeping, so clients never see it.
+     */
+    @JsonIgnore
+    @Column(length = 36)
+    private String claimToken;
+
+    /**
+     * When the item was claimed. A claim older than the configured lease is considered abandoned
+     * (e.g. the JVM died mid-run) and the item goes back to PENDING.
+     */
+    @JsonIgnore
+    private Instant claimedAt;
+
+    /**
+     * Optimistic locking. Hibernate bumps it on every update and checks it in the UPDATE's WHERE clause,
+     * so a write based on a stale copy fails instead of silently overwriting someone else's change
+     * (a PUT racing with processing, for example). Clients get it as the ETag rather than in the body.
+     * The column is NOT NULL DEFAULT 0; the field stays a Long because null is how Spring Data tells a new item.
+     */
+    @Version
+    @JsonIgnore
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Convenience constructor for new items – the ID and the claim fields are filled in by processing.
+     */
+    public Item(String name, String description, ItemStatus status, String email) {
+        this.name = name;
+        this.description = description;
+        this.status = status;
+        this.email = email;
+    }
+
+    /**
+     * Items saved without a status start out as PENDING.
+     * We do this here rather than with a field initializer, because a PATCH body that simply
+     * leaves the status out must not look like a request to reset it to PENDING.
+     */
+    @PrePersist
+    void defaultStatus() {
+        if (status == null) {
+            status = ItemStatus.PENDING;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.siemens.internship.model;
+
+import java.time.Instant;
+
+/**
+ * One entry of the item change feed (the item_change outbox table).
+ * seq is increasing and unique, so it doubles as the cursor: pass the last one you've seen as ?since=.
+ * The entry only says which item changed and how; a consumer that needs the new state fetches the item.
+ */
+public record ItemChange(long seq, long itemId, ItemChangeType type, Instant changedAt) {
+}
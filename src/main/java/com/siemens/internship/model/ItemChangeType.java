@@ -0,0 +1,12 @@
+package com.siemens.internship.model;
+
+/**
+ * What happened to an item, as recorded in the change feed.
+ * UPDATED covers edits through the API; PROCESSED is a processing run marking the item as done.
+ */
+public enum ItemChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    PROCESSED
+}
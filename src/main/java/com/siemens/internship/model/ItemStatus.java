@@ -0,0 +1,12 @@
+package com.siemens.internship.model;
+
+/**
+ * The processing lifecycle of an item.
+ * New items start as PENDING. A processing run claims them by switching them to IN_PROGRESS
+ * (so no other run picks them up), and marks them PROCESSED once they're done.
+ */
+public enum ItemStatus {
+    PENDING,
+    IN_PROGRESS,
+    PROCESSED
+}
@@ -0,0 +1,63 @@
+package com.siemens.internship.repository;
+import com.siemens.internship.model.ItemChange;
+import com.siemens.internship.model.ItemChangeType;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The item_change outbox table (see V4__item_change_outbox.sql).
+ * Plain JDBC like ProcessingRunRepository: the rows are append-only and written in the caller's transaction,
+ * which JdbcTemplate joins just like the JPA repositories do.
+ */
+@Repository
+public class ItemChangeRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves the next block of sequence numbers and returns its first one.
+     * The sequence steps by the block size (see V5__item_change_sequence_blocks.sql).
+     */
+    public long nextSequenceBlock() {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR item_change_seq", Long.class);
+    }
+
+    /**
+     * Inserts one row per item, pairing the item IDs with the given sequence numbers in order, as one JDBC batch.
+     */
+    public void insert(List<Long> seqs, Collection<Long> itemIds, ItemChangeType type, Timestamp changedAt) {
+        List<Object[]> rows = new ArrayList<>(itemIds.size());
+        Iterator<Long> seq = seqs.iterator();
+        for (Long itemId : itemIds) {
+            rows.add(new Object[]{seq.next(), itemId, type.name(), changedAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO item_change (seq, item_id, change_type, changed_at) VALUES (?, ?, ?, ?)",
+                rows);
+    }
+
+    /**
+     * Changes with since < seq <= upTo, oldest first. The primary key index makes this a range seek.
+     */
+    public List<ItemChange> findBetween(long since, long upTo, int limit) {
+        return jdbcTemplate.query("SELECT seq, item_id, change_type, changed_at FROM item_change "
+                        + "WHERE seq > ? AND seq <= ? ORDER BY seq LIMIT ?",
+                (row, rowNum) -> new ItemChange(row.getLong(1), row.getLong(2),
+                        ItemChangeType.valueOf(row.getString(3)), row.getTimestamp(4).toInstant()),
+                since, upTo, limit);
+    }
+
+    public long findLatestSeq() {
+        Long latest = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM item_change", Long.class);
+        return latest == null ? 0L : latest;
+    }
+}
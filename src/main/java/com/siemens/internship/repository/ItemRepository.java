@@ -1,17 +1,24 @@
 package com.siemens.internship.repository;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * This interface handles all database operations related to the Item entity.
  * By extending JpaRepository, we automatically get basic CRUD methods like findAll(), save(), deleteById(), etc.
+ * The hand-written parts (like the partial update) live in ItemRepositoryCustom.
  */
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
 
     /**
      * This custom query is used to retrieve only the IDs of all items from the database.
@@ -19,4 +26,91 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
      */
     @Query("SELECT i.id FROM Item i")
     List<Long> findAllIds();
-}
\ No newline at end of file
+
+    /**
+     * Returns the next page of IDs strictly greater than the given one, in ascending order.
+     * This is keyset paging: the database seeks straight to the primary key instead of skipping rows,
+     * so fetching the last chunk of a large table costs the same as fetching the first one.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id > :after ORDER BY i.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Like findIdsAfter(), but never past upTo: the keyset paging of one partition of the table.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id > :after AND i.id <= :upTo ORDER BY i.id")
+    List<Long> findIdsBetween(@Param("after") Long after, @Param("upTo") Long upTo, Limit limit);
+
+    /**
+     * The lowest and highest item ID, or null if the table is empty. Both are a single index lookup.
+     */
+    @Query("SELECT MIN(i.id) FROM Item i")
+    Long findMinId();
+
+    @Query("SELECT MAX(i.id) FROM Item i")
+    Long findMaxId();
+
+    /**
+     * Returns which of the given IDs actually exist, without loading the items themselves.
+     * The bulk endpoints use it to report unknown IDs per element before touching anything.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The next pending IDs after the cursor, in ID order.
+     * Backed by the (status, id) index, so the cost depends on how many pending items there are,
+     * not on how big the table is.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.status = :status AND i.id > :after ORDER BY i.id")
+    List<Long> findIdsByStatusAfter(@Param("status") ItemStatus status, @Param("after") Long after, Limit limit);
+
+    /**
+     * Claims the given items for one run: only rows that are still PENDING are switched to IN_PROGRESS.
+     * The status check happens in the same UPDATE, so when two runs race for the same rows,
+     * each row is won by exactly one of them. Like every bulk status change it bumps the version,
+     * so a client update based on the PENDING copy fails instead of undoing the claim.
+     */
+    @Modifying
+    @Query("UPDATE Item i SET i.status = :claimed, i.claimToken = :token, i.claimedAt = :now, "
+            + "i.version = i.version + 1 "
+            + "WHERE i.id IN :ids AND i.status = :pending")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") Instant now,
+              @Param("pending") ItemStatus pending, @Param("claimed") ItemStatus claimed);
+
+    /**
+     * Which of the given IDs are held by the given claim token, in ID order.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :ids AND i.claimToken = :token ORDER BY i.id")
+    List<Long> findClaimedIds(@Param("ids") Collection<Long> ids, @Param("token") String token);
+
+    /**
+     * Puts items whose claim is older than the lease back to PENDING.
+     * This is how work abandoned by a crashed or killed run gets picked up again.
+     */
+    @Modifying
+    @Query("UPDATE Item i SET i.status = :pending, i.claimToken = NULL, i.claimedAt = NULL, "
+            + "i.version = i.version + 1 "
+            + "WHERE i.status = :claimed AND i.claimedAt < :expiredBefore")
+    int releaseExpiredClaims(@Param("expiredBefore") Instant expiredBefore,
+                             @Param("pending") ItemStatus pending, @Param("claimed") ItemStatus claimed);
+
+    /**
+     * Hands claimed items back (IN_PROGRESS to PENDING), but only the ones this claim token still holds.
+     */
+    @Modifying
+    @Query("UPDATE Item i SET i.status = :pending, i.claimToken = NULL, i.claimedAt = NULL, "
+            + "i.version = i.version + 1 "
+            + "WHERE i.id IN :ids AND i.claimToken = :token AND i.status = :claimed")
+    int releaseClaims(@Param("ids") Collection<Long> ids, @Param("token") String token,
+                      @Param("pending") ItemStatus pending, @Param("claimed") ItemStatus claimed);
+
+    long countByStatus(ItemStatus status);
+
+    /**
+     * Whether any item has the status; the first entry of the (status, id) index answers it.
+     */
+    boolean existsByStatus(ItemStatus status);
+
+    long countByIdGreaterThan(Long id);
+}
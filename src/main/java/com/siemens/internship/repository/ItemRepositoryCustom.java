@@ -0,0 +1,30 @@
+package com.siemens.internship.repository;
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+
+/**
+ * Repository operations that Spring Data can't derive or express with a fixed @Query.
+ */
+public interface ItemRepositoryCustom {
+
+    /**
+     * Writes only the non-null fields of changes to the item with the given ID, with one UPDATE statement
+     * and without loading the item first. The version is bumped like any other update.
+     * If expectedVersion is not null, the row is only updated while it still has that version.
+     * Returns the number of updated rows: 0 means the item doesn't exist or its version didn't match.
+     */
+    int patch(Long id, Item changes, Long expectedVersion);
+
+    /**
+     * Writes the name, description and email of a detached item over its row with one UPDATE, and its status unless
+     * that is null, if the row still has the item's version, and bumps the version. The claim columns are left alone. This is what save() does for a detached item, minus the SELECT that merge() needs
+     * to load the row first. Returns the number of updated rows: 0 means the item is gone or its version moved on.
+     */
+    int update(Item item);
+
+    /**
+     * One page of the items matching the search, after the given ID and in ID order (keyset pagination, like the listing).
+     */
+    List<Item> search(ItemSearch search, long after, int size);
+}
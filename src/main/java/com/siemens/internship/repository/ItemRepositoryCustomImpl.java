@@ -0,0 +1,179 @@
+package com.siemens.internship.repository;
+import com.siemens.internship.model.Item;
+
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria-based implementation of ItemRepositoryCustom. Spring Data finds it by its name
+ * and mixes it into ItemRepository.
+ */
+class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    /**
+     * How many full-text matches we load per query when other filters may skip some of them.
+     * Keeps the IN list (and the statement) a sane size.
+     */
+    private static final int TEXT_MATCH_BATCH = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Builds an UPDATE that only sets the columns that actually change, so concurrent writers touching
+     * other columns (processing setting the status, for example) don't overwrite each other's values.
+     */
+    @Override
+    public int patch(Long id, Item changes, Long expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Item> update = cb.createCriteriaUpdate(Item.class);
+        Root<Item> item = update.from(Item.class);
+
+        if (changes.getName() != null) {
+            update.set(item.<String>get("name"), changes.getName());
+        }
+        if (changes.getDescription() != null) {
+            update.set(item.<String>get("description"), changes.getDescription());
+        }
+        if (changes.getStatus() != null) {
+            update.set(item.get("status"), changes.getStatus());
+        }
+        if (changes.getEmail() != null) {
+            update.set(item.<String>get("email"), changes.getEmail());
+        }
+        update.set(item.<Long>get("version"), cb.sum(item.<Long>get("version"), 1L));
+
+        Predicate where = cb.equal(item.get("id"), id);
+        if (expectedVersion != null) {
+            where = cb.and(where, cb.equal(item.get("version"), expectedVersion));
+        }
+        update.where(where);
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * The claim columns belong to processing and are never written from here: a PUT body doesn't carry them,
+     * and writing its nulls would release a claim a running run still holds.
+     */
+    @Override
+    public int update(Item item) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Item> update = cb.createCriteriaUpdate(Item.class);
+        Root<Item> row = update.from(Item.class);
+        update.set(row.<String>get("name"), item.getName())
+                .set(row.<String>get("description"), item.getDescription())
+                .set(row.<String>get("email"), item.getEmail());
+        if (item.getStatus() != null) {
+            update.set(row.get("status"), item.getStatus());
+        }
+        update.set(row.<Long>get("version"), cb.sum(row.<Long>get("version"), 1L))
+                .where(cb.equal(row.get("id"), item.getId()), cb.equal(row.get("version"), item.getVersion()));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    /**
+     * Builds the SQL from the filters that are actually set, so every query can use its index:
+     * (status, id) for the status and idx_item_email for exact and prefix email matches.
+     * A generic "(:status IS NULL OR status = :status)" query would force the database into one plan
+     * for all combinations, which usually means a table scan.
+     *
+     * Text goes through H2's full-text word index (FT_SEARCH_DATA) first. H2 won't use the primary key
+     * when that function is joined or used in a subquery – it walks the table and re-runs the search per row –
+     * so we fetch the matching IDs on their own and then load them by primary key, a batch at a time,
+     * until the page is full. Each batch starts after the last ID of the one before, so a page only ever
+     * loads the matches it needs: one batch of exactly the page size without other filters, and batches of
+     * TEXT_MATCH_BATCH when status or email filters may skip some matches.
+     */
+    @Override
+    public List<Item> search(ItemSearch search, long after, int size) {
+        if (search.text() == null) {
+            return find(search, after, null, size);
+        }
+        boolean filtered = search.status() != null || search.email() != null || search.emailPrefix() != null;
+        int batchSize = filtered ? TEXT_MATCH_BATCH : size;
+        List<Item> page = new ArrayList<>(size);
+        long from = after;
+        while (page.size() < size) {
+            List<Long> batch = textMatches(search.text(), from, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            page.addAll(find(search, from, batch, size - page.size()));
+            if (batch.size() < batchSize) {
+                break;
+            }
+            from = batch.get(batch.size() - 1);
+        }
+        return page;
+    }
+
+    /**
+     * The first IDs after the cursor of the items whose name or description contain every word of the text,
+     * in ID order. FT_SEARCH_DATA's own limit and offset count hits in index order, not ID order, so they can't
+     * page by our cursor; the LIMIT on the outer query at least keeps H2 to a top-N sort and a bounded result.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Long> textMatches(String text, long after, int limit) {
+        return entityManager.createNativeQuery("SELECT CAST(ft.KEYS[1] AS BIGINT) FROM FT_SEARCH_DATA(?1, 0, 0) ft "
+                        + "WHERE ft.\"TABLE\" = 'ITEM' AND CAST(ft.KEYS[1] AS BIGINT) > ?2 ORDER BY 1 LIMIT ?3", Long.class)
+                .setParameter(1, text)
+                .setParameter(2, after)
+                .setParameter(3, limit)
+                .getResultList();
+    }
+
+    /**
+     * The items after the cursor matching the status and email filters, optionally restricted to the given IDs.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Item> find(ItemSearch search, long after, List<Long> ids, int size) {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT i.* FROM item i WHERE i.id > ").append(bind(parameters, after));
+        if (ids != null) {
+            sql.append(" AND i.id IN (").append(bind(parameters, ids)).append(")");
+        }
+        if (search.status() != null) {
+            sql.append(" AND i.status = ").append(bind(parameters, search.status().name()));
+        }
+        if (search.email() != null) {
+            sql.append(" AND i.email = ").append(bind(parameters, search.email()));
+        }
+        if (search.emailPrefix() != null) {
+            // A range instead of LIKE 'prefix%': H2 only uses an index for LIKE when the pattern is a literal,
+            // but a range on a bound parameter is always an index range scan. No wildcards to escape either.
+            String prefix = search.emailPrefix();
+            String end = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+            sql.append(" AND i.email >= ").append(bind(parameters, prefix))
+                    .append(" AND i.email < ").append(bind(parameters, end));
+        }
+        sql.append(" ORDER BY i.id LIMIT ").append(bind(parameters, size));
+
+        // Search results are only serialized, never changed, so Hibernate can skip the dirty-checking snapshots.
+        Query query = entityManager.createNativeQuery(sql.toString(), Item.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, size);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Adds a parameter and returns its numbered placeholder. Numbered (?1, ?2, ...) placeholders let Hibernate
+     * expand a list parameter into the right number of values.
+     */
+    private static String bind(List<Object> parameters, Object value) {
+        parameters.add(value);
+        return "?" + parameters.size();
+    }
+}
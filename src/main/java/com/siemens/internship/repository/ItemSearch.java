@@ -0,0 +1,14 @@
+package com.siemens.internship.repository;
+import com.siemens.internship.model.ItemStatus;
+
+/**
+ * The filters of an item search. Every field is optional (null means "don't filter on it"),
+ * and the ones that are set must all match.
+ *
+ * @param status      exact status
+ * @param email       exact email address
+ * @param emailPrefix email addresses starting with this
+ * @param text        words that must all appear in the name or the description (full-text search)
+ */
+public record ItemSearch(ItemStatus status, String email, String emailPrefix, String text) {
+}
@@ -0,0 +1,137 @@
+package com.siemens.internship.repository;
+import com.siemens.internship.repository.ProcessingRunRepository.RunState;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.siemens.internship.repository.ProcessingRunRepository.LEASE_EXPIRED;
+import static com.siemens.internship.repository.ProcessingRunRepository.LEASE_UNTIL;
+
+/**
+ * The partitions of PARTITIONED runs and who holds them (processing_partition, see V6__processing_partitions.sql).
+ * Every change of hands is a guarded UPDATE that checks the lease in the same statement, so however many
+ * instances go for the same partition, exactly one gets it.
+ */
+@Repository
+public class ProcessingPartitionRepository {
+
+    /**
+     * A partition of a run's ID range, as leased to one instance: its bounds, and the checkpoint to continue after.
+     */
+    public record Partition(UUID runId, int number, long firstId, long lastId, long checkpointId) {
+    }
+
+    private static final String PENDING = "PENDING";
+    private static final String DONE = "DONE";
+    // Partitions of a run that has finished (or was cancelled) are never worked on again.
+    private static final String RUN_IS_RUNNING = "run_id IN (SELECT id FROM processing_run WHERE state = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Splits the IDs from firstId to lastId into partitions of partitionSize IDs each. The last partition
+     * has no upper bound, so items created while the run is going are processed too, like a CHUNKED run would.
+     * Returns how many partitions there are.
+     */
+    public int createPartitions(UUID runId, long firstId, long lastId, long partitionSize) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long from = firstId; from <= lastId; from += partitionSize) {
+            long to = lastId - from < partitionSize ? Long.MAX_VALUE : from + partitionSize - 1;
+            rows.add(new Object[]{runId, rows.size(), from, to, from - 1, PENDING});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO processing_partition (run_id, partition_no, first_id, last_id, "
+                + "checkpoint_id, state) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        return rows.size();
+    }
+
+    /**
+     * Leases the next partition of a running run that nobody holds, lowest first.
+     * If another instance beats us to a candidate we go on to the next one, so an empty result means
+     * every partition that isn't done is leased by someone.
+     */
+    public Optional<Partition> claim(UUID runId, String owner, Duration lease) {
+        while (true) {
+            List<Partition> candidates = jdbcTemplate.query("SELECT partition_no, first_id, last_id, checkpoint_id "
+                            + "FROM processing_partition WHERE run_id = ? AND " + RUN_IS_RUNNING + " AND state = ? AND "
+                            + LEASE_EXPIRED + " ORDER BY partition_no LIMIT 1",
+                    (row, rowNum) -> new Partition(runId, row.getInt(1), row.getLong(2), row.getLong(3), row.getLong(4)),
+                    runId, RunState.RUNNING.name(), PENDING);
+            if (candidates.isEmpty()) {
+                return Optional.empty();
+            }
+            Partition candidate = candidates.get(0);
+            int claimed = jdbcTemplate.update("UPDATE processing_partition SET owner = ?, lease_until = " + LEASE_UNTIL
+                            + " WHERE run_id = ? AND partition_no = ? AND state = ? AND " + LEASE_EXPIRED,
+                    owner, lease.toMillis(), runId, candidate.number(), PENDING);
+            if (claimed == 1) {
+                // Another instance may have moved the checkpoint on between our select and the claim.
+                long checkpointId = jdbcTemplate.queryForObject("SELECT checkpoint_id FROM processing_partition "
+                        + "WHERE run_id = ? AND partition_no = ?", Long.class, runId, candidate.number());
+                return Optional.of(new Partition(runId, candidate.number(), candidate.firstId(), candidate.lastId(),
+                        checkpointId));
+            }
+        }
+    }
+
+    /**
+     * Moves the partition's checkpoint forward while we still hold it. Returns false if we don't:
+     * our lease ran out and another instance has taken the partition over.
+     */
+    public boolean saveCheckpoint(Partition partition, String owner, long checkpointId) {
+        return jdbcTemplate.update("UPDATE processing_partition SET checkpoint_id = GREATEST(checkpoint_id, ?) "
+                        + "WHERE run_id = ? AND partition_no = ? AND owner = ? AND state = ?",
+                checkpointId, partition.runId(), partition.number(), owner, PENDING) == 1;
+    }
+
+    /**
+     * Marks the partition as done, if we still hold it. Returns false if we don't.
+     */
+    public boolean finish(Partition partition, String owner) {
+        return jdbcTemplate.update("UPDATE processing_partition SET state = ?, checkpoint_id = last_id, lease_until = NULL "
+                        + "WHERE run_id = ? AND partition_no = ? AND owner = ? AND state = ?",
+                DONE, partition.runId(), partition.number(), owner, PENDING) == 1;
+    }
+
+    /**
+     * Gives back the partitions of the run we still hold, so other instances can take them over right away.
+     */
+    public void releaseAll(UUID runId, String owner) {
+        jdbcTemplate.update("UPDATE processing_partition SET lease_until = NULL WHERE run_id = ? AND owner = ? AND state = ?",
+                runId, owner, PENDING);
+    }
+
+    /**
+     * The heartbeat: extends the lease of every partition the instance holds.
+     */
+    public void renewLeases(String owner, Duration lease) {
+        jdbcTemplate.update("UPDATE processing_partition SET lease_until = " + LEASE_UNTIL
+                + " WHERE owner = ? AND state = ? AND lease_until IS NOT NULL", lease.toMillis(), owner, PENDING);
+    }
+
+    /**
+     * How many partitions of the run aren't done yet, as long as the run is still running.
+     */
+    public long countUnfinished(UUID runId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM processing_partition "
+                        + "WHERE run_id = ? AND " + RUN_IS_RUNNING + " AND state = ?",
+                Long.class, runId, RunState.RUNNING.name(), PENDING);
+    }
+
+    /**
+     * Running runs with partitions that nobody holds, i.e. work an idle instance could join in on.
+     */
+    public List<UUID> findJoinable() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT run_id FROM processing_partition "
+                        + "WHERE " + RUN_IS_RUNNING + " AND state = ? AND " + LEASE_EXPIRED,
+                UUID.class, RunState.RUNNING.name(), PENDING);
+    }
+}
@@ -0,0 +1,204 @@
+package com.siemens.internship.repository;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The durable record of processing runs: one row per run with its checkpoint (processing_run),
+ * and the items that failed in it (processing_failure). See V3__processing_checkpoints.sql.
+ * This is plain JDBC rather than JPA entities: the rows are tiny, written once per chunk from many workers,
+ * and never need to go through the persistence context or the item cache.
+ * Runs started with an owner are leased to that instance (see V6__processing_partitions.sql). Lease times come
+ * from the database clock, so instances with skewed clocks still agree on when a lease has run out.
+ */
+@Repository
+public class ProcessingRunRepository {
+
+    public enum RunState {
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    /**
+     * A run that was still RUNNING when the application stopped, and how far it had got.
+     */
+    public record InterruptedRun(UUID id, ProcessingMode mode, long checkpointId) {
+    }
+
+    // Error messages can be arbitrarily long; the column isn't.
+    private static final int MAX_REASON_LENGTH = 1000;
+    // A lease that starts now; the parameter is its length in milliseconds.
+    static final String LEASE_UNTIL = "DATEADD(MILLISECOND, CAST(? AS BIGINT), CURRENT_TIMESTAMP)";
+    static final String LEASE_EXPIRED = "(lease_until IS NULL OR lease_until < CURRENT_TIMESTAMP)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void startRun(UUID id, ProcessingMode mode) {
+        startRun(id, mode, null, null);
+    }
+
+    /**
+     * Records a new run, leased to the given instance. Without an owner the run isn't leased at all.
+     */
+    public void startRun(UUID id, ProcessingMode mode, String owner, Duration lease) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update("INSERT INTO processing_run (id, mode, state, checkpoint_id, started_at, updated_at, "
+                        + "owner, lease_until) VALUES (?, ?, ?, 0, ?, ?, ?, " + LEASE_UNTIL + ")",
+                id, mode.name(), RunState.RUNNING.name(), now, now, owner, owner == null ? null : lease.toMillis());
+    }
+
+    /**
+     * Records a new PARTITIONED run, unless one is running already: there can only be one at a time,
+     * or instances would process the same rows in two runs. Returns false if another run got there first.
+     */
+    public boolean startPartitionedRun(UUID id, String owner, Duration lease) {
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            jdbcTemplate.update("INSERT INTO processing_run (id, mode, state, checkpoint_id, started_at, updated_at, "
+                            + "owner, lease_until, active_partitioned) VALUES (?, ?, ?, 0, ?, ?, ?, " + LEASE_UNTIL + ", TRUE)",
+                    id, ProcessingMode.PARTITIONED.name(), RunState.RUNNING.name(), now, now, owner, lease.toMillis());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public Optional<UUID> findActivePartitionedRun() {
+        return jdbcTemplate.queryForList("SELECT id FROM processing_run WHERE active_partitioned = TRUE", UUID.class)
+                .stream().findFirst();
+    }
+
+    /**
+     * Moves the run's checkpoint forward. It never moves back, whatever order the updates arrive in.
+     */
+    public void saveCheckpoint(UUID id, long checkpointId) {
+        jdbcTemplate.update("UPDATE processing_run SET checkpoint_id = GREATEST(checkpoint_id, ?), updated_at = ? "
+                + "WHERE id = ?", checkpointId, Timestamp.from(Instant.now()), id);
+    }
+
+    public void finishRun(UUID id, RunState state) {
+        jdbcTemplate.update("UPDATE processing_run SET state = ?, updated_at = ?, active_partitioned = NULL WHERE id = ?",
+                state.name(), Timestamp.from(Instant.now()), id);
+    }
+
+    /**
+     * The heartbeat: extends the lease of every running run the instance coordinates.
+     */
+    public void renewLeases(String owner, Duration lease) {
+        jdbcTemplate.update("UPDATE processing_run SET lease_until = " + LEASE_UNTIL + " WHERE owner = ? AND state = ?",
+                lease.toMillis(), owner, RunState.RUNNING.name());
+    }
+
+    /**
+     * Running runs nobody holds a lease on: their coordinator stopped without finishing them.
+     */
+    public List<InterruptedRun> findOrphaned() {
+        return jdbcTemplate.query("SELECT id, mode, checkpoint_id FROM processing_run WHERE state = ? AND "
+                        + LEASE_EXPIRED + " ORDER BY started_at",
+                (row, rowNum) -> new InterruptedRun(row.getObject(1, UUID.class),
+                        ProcessingMode.valueOf(row.getString(2)), row.getLong(3)),
+                RunState.RUNNING.name());
+    }
+
+    /**
+     * Takes over the coordination of an orphaned run. The lease check is part of the UPDATE, so when several
+     * instances try at once exactly one of them gets it.
+     */
+    public boolean adopt(UUID id, String owner, Duration lease) {
+        return jdbcTemplate.update("UPDATE processing_run SET owner = ?, lease_until = " + LEASE_UNTIL
+                        + " WHERE id = ? AND state = ? AND " + LEASE_EXPIRED,
+                owner, lease.toMillis(), id, RunState.RUNNING.name()) == 1;
+    }
+
+    /**
+     * Gives up the lease on a run right away, so another instance can take it over without waiting for it to run out.
+     */
+    public void disown(UUID id, String owner) {
+        jdbcTemplate.update("UPDATE processing_run SET lease_until = NULL WHERE id = ? AND owner = ?", id, owner);
+    }
+
+    public Optional<RunState> findState(UUID id) {
+        return jdbcTemplate.query("SELECT state FROM processing_run WHERE id = ?",
+                        (row, rowNum) -> RunState.valueOf(row.getString(1)), id)
+                .stream().findFirst();
+    }
+
+    public List<InterruptedRun> findInterrupted() {
+        return jdbcTemplate.query("SELECT id, mode, checkpoint_id FROM processing_run WHERE state = ? ORDER BY started_at",
+                (row, rowNum) -> new InterruptedRun(row.getObject(1, UUID.class),
+                        ProcessingMode.valueOf(row.getString(2)), row.getLong(3)),
+                RunState.RUNNING.name());
+    }
+
+    /**
+     * Records a first failure for every given item, due for a retry at nextAttemptAt.
+     * An item that already has a row (e.g. its chunk failed again after a resume) starts counting over.
+     */
+    public void recordFailures(UUID runId, Collection<Long> itemIds, String reason, Instant nextAttemptAt) {
+        Timestamp next = Timestamp.from(nextAttemptAt);
+        String shortReason = truncate(reason);
+        jdbcTemplate.batchUpdate("MERGE INTO processing_failure (run_id, item_id, reason, attempts, next_attempt_at) "
+                        + "KEY (run_id, item_id) VALUES (?, ?, ?, 1, ?)",
+                itemIds.stream().map(itemId -> new Object[]{runId, itemId, shortReason, next}).toList());
+    }
+
+    /**
+     * Counts one more failed attempt for the item and schedules the next one.
+     */
+    public void recordRetryFailure(UUID runId, long itemId, String reason, Instant nextAttemptAt) {
+        jdbcTemplate.update("UPDATE processing_failure SET attempts = attempts + 1, reason = ?, next_attempt_at = ? "
+                + "WHERE run_id = ? AND item_id = ?", truncate(reason), Timestamp.from(nextAttemptAt), runId, itemId);
+    }
+
+    public void deleteFailure(UUID runId, long itemId) {
+        jdbcTemplate.update("DELETE FROM processing_failure WHERE run_id = ? AND item_id = ?", runId, itemId);
+    }
+
+    /**
+     * Failed items of the run that are due for another attempt and still have attempts left, oldest due first.
+     */
+    public List<Long> findDueFailures(UUID runId, int maxAttempts, Instant now, int limit) {
+        return jdbcTemplate.queryForList("SELECT item_id FROM processing_failure "
+                        + "WHERE run_id = ? AND attempts < ? AND next_attempt_at <= ? ORDER BY next_attempt_at, item_id LIMIT ?",
+                Long.class, runId, maxAttempts, Timestamp.from(now), limit);
+    }
+
+    /**
+     * How many failed attempts the item has had in this run (0 if it has no failure row).
+     */
+    public int findAttempts(UUID runId, long itemId) {
+        return jdbcTemplate.queryForList("SELECT attempts FROM processing_failure WHERE run_id = ? AND item_id = ?",
+                Integer.class, runId, itemId).stream().findFirst().orElse(0);
+    }
+
+    /**
+     * When the next retry of the run is due, or empty if no failed item has attempts left.
+     */
+    public Optional<Instant> findNextAttemptAt(UUID runId, int maxAttempts) {
+        Timestamp next = jdbcTemplate.queryForObject("SELECT MIN(next_attempt_at) FROM processing_failure "
+                + "WHERE run_id = ? AND attempts < ?", Timestamp.class, runId, maxAttempts);
+        return Optional.ofNullable(next).map(Timestamp::toInstant);
+    }
+
+    private static String truncate(String reason) {
+        if (reason == null || reason.length() <= MAX_REASON_LENGTH) {
+            return reason;
+        }
+        return reason.substring(0, MAX_REASON_LENGTH);
+    }
+}
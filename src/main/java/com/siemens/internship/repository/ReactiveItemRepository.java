@@ -0,0 +1,99 @@
+package com.siemens.internship.repository;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The reactive (R2DBC) counterpart of the read queries in ItemRepository, used by the reactive routes.
+ * Rows are mapped to Item by hand with plain SQL: Item is a JPA entity, and we don't want a second
+ * object mapping (and a second transaction manager) just for reading it.
+ * The H2 driver runs every statement on the thread that subscribes, so we subscribe on a worker scheduler
+ * to keep the query off the Netty event loop; the thread is only held while the query runs,
+ * not while the client reads the response.
+ * Like the rest of the reactive path it only exists with items.reactive.enabled=true, so other databases
+ * work fine as long as the reactive server stays off.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "items.reactive", name = "enabled", havingValue = "true")
+public class ReactiveItemRepository {
+
+    private static final String COLUMNS = "id, name, description, status, email, version";
+    private static final String H2_JDBC_PREFIX = "jdbc:h2:";
+
+    private final DatabaseClient client;
+
+    public ReactiveItemRepository(DataSourceProperties dataSource) {
+        this.client = DatabaseClient.create(connectionFactory(dataSource));
+    }
+
+    /**
+     * R2DBC connections to the very same H2 database the JDBC DataSource uses.
+     * We derive the URL from spring.datasource.url instead of configuring spring.r2dbc.url separately,
+     * so the two can never point at different databases (e.g. in the persistent profile or in benchmarks).
+     * The factory is deliberately not a bean: Spring Boot skips the JDBC DataSource as soon as there is
+     * an R2DBC ConnectionFactory bean, and for the same reason its R2DBC auto-configuration is switched off
+     * in application.properties.
+     */
+    private static ConnectionFactory connectionFactory(DataSourceProperties dataSource) {
+        String url = dataSource.determineUrl();
+        if (url == null || !url.startsWith(H2_JDBC_PREFIX)) {
+            throw new IllegalStateException("The reactive repository only supports H2, but the datasource is " + url);
+        }
+        return new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(url.substring(H2_JDBC_PREFIX.length()))
+                .username(dataSource.determineUsername())
+                .password(dataSource.determinePassword())
+                .build());
+    }
+
+    /**
+     * Same as ItemListingService.page(): one keyset page of items after the cursor.
+     */
+    public Flux<Item> findPage(long after, int size) {
+        return client.sql("SELECT " + COLUMNS + " FROM item WHERE id > :after ORDER BY id LIMIT :size")
+                .bind("after", after)
+                .bind("size", size)
+                .map(ReactiveItemRepository::toItem)
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Item> findById(long id) {
+        return client.sql("SELECT " + COLUMNS + " FROM item WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveItemRepository::toItem)
+                .one()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Every item ID in ascending order, emitted as the subscriber asks for them.
+     */
+    public Flux<Long> findAllIds() {
+        return client.sql("SELECT id FROM item ORDER BY id")
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Item toItem(Readable row) {
+        String status = row.get("status", String.class);
+        Item item = new Item(row.get("name", String.class), row.get("description", String.class),
+                status == null ? null : ItemStatus.valueOf(status), row.get("email", String.class));
+        item.setId(row.get("id", Long.class));
+        item.setVersion(row.get("version", Long.class));
+        return item;
+    }
+}
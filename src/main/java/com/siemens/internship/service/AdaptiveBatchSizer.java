@@ -0,0 +1,92 @@
+package com.siemens.internship.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Batch size and concurrency for the background processor, following how the database copes
+ * (additive increase, multiplicative decrease, like AdaptiveConcurrencyLimiter).
+ * Every batch we claim is a sample: claiming it took so long, and so many threads were waiting for the database.
+ * A quick claim with nobody waiting grows the batch by a fixed increment and the concurrency by one per "round";
+ * a slow claim or a queue in front of the database cuts both by a quarter. Busy API traffic cuts the concurrency
+ * the same way, so processing starts small again once it resumes.
+ * Samples come in once per batch, a few per second, so a lock is plenty.
+ */
+public class AdaptiveBatchSizer {
+
+    private static final double BACKOFF_RATIO = 0.75;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int batchSizeIncrement;
+    private final int maxConcurrency;
+    private final long latencyThresholdNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double batchSize;
+    private double concurrency;
+
+    public AdaptiveBatchSizer(int initialBatchSize, int minBatchSize, int maxBatchSize, int batchSizeIncrement,
+                              int initialConcurrency, int maxConcurrency, long latencyThresholdNanos) {
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizeIncrement = batchSizeIncrement;
+        this.maxConcurrency = maxConcurrency;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.batchSize = Math.clamp(initialBatchSize, minBatchSize, maxBatchSize);
+        this.concurrency = Math.clamp(initialConcurrency, 1, maxConcurrency);
+    }
+
+    /**
+     * Adjusts to one claimed batch. Only full batches, claimed while we were using a good part of the concurrency,
+     * make things grow: a short batch means we ran out of pending items, not that the database could take more.
+     */
+    public void onClaimed(int requested, int claimed, long latencyNanos, int queueDepth, int inFlight) {
+        lock.lock();
+        try {
+            if (latencyNanos > latencyThresholdNanos || queueDepth > 0) {
+                batchSize = Math.max(minBatchSize, batchSize * BACKOFF_RATIO);
+                concurrency = Math.max(1, concurrency * BACKOFF_RATIO);
+            } else if (claimed >= requested) {
+                batchSize = Math.min(maxBatchSize, batchSize + batchSizeIncrement);
+                if (inFlight * 2 >= concurrency) {
+                    concurrency = Math.min(maxConcurrency, concurrency + 1 / concurrency);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The API is busy and processing steps aside.
+     */
+    public void onPaused() {
+        lock.lock();
+        try {
+            concurrency = Math.max(1, concurrency * BACKOFF_RATIO);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getBatchSize() {
+        lock.lock();
+        try {
+            return (int) batchSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getConcurrency() {
+        lock.lock();
+        try {
+            return (int) concurrency;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+}
@@ -0,0 +1,125 @@
+package com.siemens.internship.service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * The chunk source of the background processor. It hands out the claimed chunks of its delegate, but only as many
+ * at a time as the sizer's current concurrency, and none while paused (the API is busy). Every claim is timed and
+ * reported to the sizer together with the queue in front of the database, which is what the sizer adapts the
+ * batch size and concurrency to.
+ * Workers over the limit wait here, holding nothing: no claimed items, no connection.
+ */
+class AdaptiveChunkSource implements ChunkSource {
+
+    private final ChunkSource delegate;
+    private final AdaptiveBatchSizer sizer;
+    private final ProcessingRun run;
+    private final BooleanSupplier paused;
+    private final IntSupplier queueDepth;
+    private final Duration pauseInterval;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Signalled when a chunk is done with, so a waiting worker may take the next one.
+    private final Condition slotFreed = lock.newCondition();
+    // The chunks handed out and not done with yet, by their last ID.
+    private final Set<Long> outstanding = new HashSet<>();
+    // Workers that got a slot and are claiming their chunk right now.
+    private int claiming;
+
+    AdaptiveChunkSource(ChunkSource delegate, AdaptiveBatchSizer sizer, ProcessingRun run, BooleanSupplier paused,
+                        IntSupplier queueDepth, Duration pauseInterval) {
+        this.delegate = delegate;
+        this.sizer = sizer;
+        this.run = run;
+        this.paused = paused;
+        this.queueDepth = queueDepth;
+        this.pauseInterval = pauseInterval;
+    }
+
+    /**
+     * Waits for a slot under the current concurrency (and for the API to calm down), then claims the next chunk.
+     * The claim itself happens outside our lock, so chunks that finish meanwhile can give their slot back.
+     */
+    @Override
+    public List<Long> next() {
+        int inFlight;
+        lock.lock();
+        try {
+            while (true) {
+                if (run.isCancelled()) {
+                    return List.of();
+                }
+                if (paused.getAsBoolean()) {
+                    sizer.onPaused();
+                } else if (outstanding.size() + claiming < sizer.getConcurrency()) {
+                    break;
+                }
+                // Timed, because nothing signals us when the API calms down.
+                slotFreed.await(pauseInterval.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            claiming++;
+            inFlight = outstanding.size() + claiming;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } finally {
+            lock.unlock();
+        }
+
+        int requested = sizer.getBatchSize();
+        long start = System.nanoTime();
+        List<Long> ids = List.of();
+        try {
+            ids = delegate.next();
+        } finally {
+            lock.lock();
+            try {
+                claiming--;
+                if (ids.isEmpty()) {
+                    slotFreed.signalAll();
+                } else {
+                    outstanding.add(ids.get(ids.size() - 1));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (!ids.isEmpty()) {
+            sizer.onClaimed(requested, ids.size(), System.nanoTime() - start, queueDepth.getAsInt(), inFlight);
+        }
+        return ids;
+    }
+
+    @Override
+    public void release(List<Long> ids) {
+        delegate.release(ids);
+        done(ids);
+    }
+
+    @Override
+    public void completed(List<Long> ids) {
+        delegate.completed(ids);
+        done(ids);
+    }
+
+    /**
+     * A failed chunk is released and then completed; only the first of the two frees its slot.
+     */
+    private void done(List<Long> ids) {
+        lock.lock();
+        try {
+            if (outstanding.remove(ids.get(ids.size() - 1))) {
+                slotFreed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.siemens.internship.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps how many requests are in flight, with a limit that follows how the server is coping
+ * (additive increase, multiplicative decrease, like TCP congestion control).
+ * Every latency sample below the threshold grows the limit by 1/limit, so by about one per "round" of requests;
+ * every sample above it cuts the limit by a tenth. Requests over the limit are shed instead of queued, which keeps
+ * latency for the ones we accept close to normal while the server is overloaded.
+ * Both the in-flight count and the limit are updated with compare-and-set, so the limiter never blocks.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // The limit is fractional (it grows by 1/limit), stored as the bits of a double.
+    private final AtomicLong limitBits;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(Math.clamp(initialLimit, minLimit, maxLimit)));
+    }
+
+    /**
+     * Takes a slot if we're under the limit. Every successful call must be followed by exactly one release().
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives the slot back without a latency sample, for requests whose duration says nothing about load.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Gives the slot back and adjusts the limit by how long the request took.
+     */
+    public void release(long latencyNanos) {
+        int before = inFlight.getAndDecrement();
+        boolean slow = latencyNanos > latencyThresholdNanos;
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next;
+            if (slow) {
+                next = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (before * 2 >= limit) {
+                // Only grow while we're actually using a good part of the limit; otherwise an idle server
+                // would drift up to maxLimit and have no protection left when the load arrives.
+                next = Math.min(maxLimit, limit + 1 / limit);
+            } else {
+                return;
+            }
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,144 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.config.ItemProcessingProperties.BackgroundSettings;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes pending items in the background (items.processing.background.*), so nobody has to start runs by hand.
+ * Whenever there are pending items and the API isn't busy it starts a sweep: an INCREMENTAL run that claims and
+ * processes the pending items, with a batch size and concurrency that follow the database (see AdaptiveBatchSizer)
+ * and that steps aside while the API is busy. Once a sweep has run out of pending items, it looks again after
+ * idleInterval. The sizer lives as long as the application, so every sweep starts where the last one left off.
+ * Nothing happens unless it's enabled.
+ */
+@Component
+public class BackgroundProcessor {
+    private static final Logger log = LoggerFactory.getLogger(BackgroundProcessor.class);
+
+    @Autowired
+    private ItemProcessingProperties properties;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private RequestAdmission admission;
+
+    @Autowired
+    private DbConcurrencyLimiter dbConcurrencyLimiter;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private AdaptiveBatchSizer sizer;
+    private ScheduledExecutorService scheduler;
+    private volatile ProcessingRun current;
+    private volatile boolean stopped;
+
+    /**
+     * Starts looking for pending items once the application is up. The looking happens on a platform thread
+     * of its own; the sweeps themselves run on the processing executor like every other run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        BackgroundSettings background = properties.getBackground();
+        if (!background.isEnabled()) {
+            return;
+        }
+        sizer = new AdaptiveBatchSizer(properties.getChunkSize(), background.getMinBatchSize(),
+                background.getMaxBatchSize(), background.getBatchSizeIncrement(), properties.getMaxInFlightChunks(),
+                Math.min(background.getMaxConcurrency(), dbConcurrencyLimiter.getLimit()),
+                background.getLatencyThreshold().toNanos());
+        Gauge.builder("items.processing.background.batch.size", sizer, AdaptiveBatchSizer::getBatchSize)
+                .description("Current batch size of the background processor")
+                .register(registry);
+        Gauge.builder("items.processing.background.concurrency", sizer, AdaptiveBatchSizer::getConcurrency)
+                .description("Current number of batches the background processor works on at once")
+                .register(registry);
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("background-processing").daemon().factory());
+        scheduler.execute(this::sweep);
+        log.info("Background processing of pending items started");
+    }
+
+    /**
+     * Starts a sweep if there's anything to do, or looks again later. Failures are logged and we look again
+     * after idleInterval: an exception escaping would stop background processing for good.
+     */
+    void sweep() {
+        BackgroundSettings background = properties.getBackground();
+        try {
+            if (stopped) {
+                return;
+            }
+            if (isApiBusy()) {
+                lookAgainIn(background.getPauseInterval());
+                return;
+            }
+            if (!itemRepository.existsByStatus(ItemStatus.PENDING)) {
+                lookAgainIn(background.getIdleInterval());
+                return;
+            }
+            ProcessingRun run = new ProcessingRun();
+            current = run;
+            itemService.processPendingItems(run, sizer, this::isApiBusy).whenComplete((count, error) -> {
+                current = null;
+                if (error != null) {
+                    log.warn("Background processing run {} failed", run.getId(), error);
+                } else {
+                    log.debug("Background processing run {} processed {} items", run.getId(), count);
+                }
+                lookAgainIn(background.getIdleInterval());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Background processing failed to start a run", e);
+            lookAgainIn(background.getIdleInterval());
+        }
+    }
+
+    private boolean isApiBusy() {
+        return admission.isBusy(properties.getBackground().getApiBusyRatio());
+    }
+
+    private void lookAgainIn(Duration delay) {
+        if (!stopped) {
+            scheduler.schedule(this::sweep, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops on shutdown, while the database is still there: the sweep going on is cancelled, and the chunks
+     * it's in the middle of are rolled back and handed back to PENDING.
+     */
+    @EventListener(ContextClosedEvent.class)
+    void stop() {
+        stopped = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        ProcessingRun run = current;
+        if (run != null) {
+            run.cancel();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.siemens.internship.service;
+import com.siemens.internship.repository.ProcessingRunRepository;
+
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Wraps a run's chunk source and keeps the run's durable checkpoint up to date.
+ * Both cursors hand chunks out in ascending ID order, but the workers finish them in any order. The checkpoint
+ * is therefore the upper end of the longest prefix of chunks that are all done: everything at or below it has
+ * been committed (or recorded as failed), so a resumed run can safely continue right after it.
+ * A chunk that never finishes (the run was cancelled or the JVM died) holds the checkpoint back, and gets
+ * processed again by the resumed run.
+ */
+class CheckpointedChunkSource implements ChunkSource {
+
+    private final ChunkSource delegate;
+    private final ProcessingRunRepository runs;
+    private final UUID runId;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Upper end of every chunk that's been handed out and isn't part of the checkpoint yet -> is it done?
+    private final TreeMap<Long, Boolean> outstanding = new TreeMap<>();
+    private long checkpoint;
+
+    CheckpointedChunkSource(ChunkSource delegate, ProcessingRunRepository runs, UUID runId, long checkpoint) {
+        this.delegate = delegate;
+        this.runs = runs;
+        this.runId = runId;
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Takes the next chunk and registers it under the same lock, so chunks are registered in the order
+     * they were handed out. Otherwise a later chunk could finish and move the checkpoint past an earlier one
+     * that hadn't been registered yet.
+     */
+    @Override
+    public List<Long> next() {
+        lock.lock();
+        try {
+            List<Long> ids = delegate.next();
+            if (!ids.isEmpty()) {
+                outstanding.put(ids.get(ids.size() - 1), Boolean.FALSE);
+            }
+            return ids;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(List<Long> ids) {
+        delegate.release(ids);
+    }
+
+    /**
+     * Marks a chunk as done (committed, or its failures recorded) and persists the checkpoint if it moved.
+     */
+    @Override
+    public void completed(List<Long> ids) {
+        long advancedTo;
+        lock.lock();
+        try {
+            outstanding.put(ids.get(ids.size() - 1), Boolean.TRUE);
+            long before = checkpoint;
+            Map.Entry<Long, Boolean> first;
+            while ((first = outstanding.firstEntry()) != null && first.getValue()) {
+                checkpoint = first.getKey();
+                outstanding.pollFirstEntry();
+            }
+            if (checkpoint == before) {
+                return;
+            }
+            advancedTo = checkpoint;
+        } finally {
+            lock.unlock();
+        }
+        // Written outside the lock; saveCheckpoint() never moves the stored value backwards.
+        runs.saveCheckpoint(runId, advancedTo);
+    }
+}
@@ -0,0 +1,29 @@
+package com.siemens.internship.service;
+
+import java.util.List;
+
+/**
+ * Where the processing workers get their chunks of item IDs from.
+ * Implementations must be safe to call from several workers at once and never hand out the same ID twice.
+ */
+interface ChunkSource {
+
+    /**
+     * The next chunk of IDs to process, or an empty list when there's nothing left.
+     */
+    List<Long> next();
+
+    /**
+     * Called when a chunk handed out by next() could not be processed.
+     * Sources that reserve their chunks (like claiming) should undo the reservation here; the default does nothing.
+     */
+    default void release(List<Long> ids) {
+    }
+
+    /**
+     * Called when a chunk handed out by next() is done with: committed, or its failures recorded for a retry.
+     * Sources that keep checkpoints move them on here; the default does nothing.
+     */
+    default void completed(List<Long> ids) {
+    }
+}
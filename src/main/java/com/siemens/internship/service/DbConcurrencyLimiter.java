@@ -0,0 +1,48 @@
+package com.siemens.internship.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A simple semaphore around database work done by the processing tasks.
+ * With virtual threads we can easily have far more tasks than connections,
+ * so each task waits here for a permit instead of piling up inside the connection pool.
+ */
+public class DbConcurrencyLimiter {
+
+    private final Semaphore permits;
+    private final int limit;
+
+    public DbConcurrencyLimiter(int limit) {
+        this.limit = limit;
+        this.permits = new Semaphore(limit, true);
+    }
+
+    /**
+     * Runs the given work while holding one permit, and always gives the permit back afterwards.
+     * Waiting for a permit can be interrupted, which is how a cancelled task gets out of the queue.
+     */
+    public <T> T call(Callable<T> work) throws Exception {
+        permits.acquire();
+        try {
+            return work.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * An estimate of how many tasks are waiting for a permit right now.
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+}
@@ -0,0 +1,131 @@
+package com.siemens.internship.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A single reusable byte buffer in front of an NIO channel.
+ * Export formats encode their rows straight into the buffer; whenever it runs full it is drained to the channel
+ * and cleared, so an export never holds more than one buffer's worth of output no matter how many rows it writes.
+ */
+final class ExportChannel {
+
+    // VARCHAR columns are at most a few hundred characters, and UTF-8 needs at most 3 bytes per UTF-16 char.
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    ExportChannel(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Makes sure the next {@code bytes} bytes fit into the buffer, draining it first if they don't.
+     */
+    void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    void put(byte value) throws IOException {
+        ensure(Byte.BYTES);
+        buffer.put(value);
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes a non-negative number as ASCII digits without going through Long.toString.
+     */
+    void putDecimal(long value) throws IOException {
+        ensure(20);
+        if (value == 0) {
+            buffer.put((byte) '0');
+            return;
+        }
+        int start = buffer.position();
+        while (value > 0) {
+            buffer.put((byte) ('0' + value % 10));
+            value /= 10;
+        }
+        // The digits came out least significant first; reverse them in place.
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte digit = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, digit);
+        }
+    }
+
+    /**
+     * Encodes the text as UTF-8 into the buffer, draining it as often as needed for long values.
+     */
+    void putUtf8(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (encoder.encode(chars, buffer, true).isOverflow()) {
+            flush();
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the text as a 4-byte length followed by its UTF-8 bytes, or just a length of -1 for null.
+     * The length has to come first, so the encoded value must fit into the buffer in one piece;
+     * anything too big for that (never the case for our columns) falls back to a plain byte array.
+     */
+    void putLengthPrefixed(String text) throws IOException {
+        if (text == null) {
+            putInt(-1);
+            return;
+        }
+        int worstCase = Integer.BYTES + text.length() * MAX_BYTES_PER_CHAR;
+        if (worstCase > buffer.capacity()) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for (int offset = 0; offset < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+            return;
+        }
+        ensure(worstCase);
+        int lengthAt = buffer.position();
+        buffer.position(lengthAt + Integer.BYTES);
+        putUtf8(text);
+        buffer.putInt(lengthAt, buffer.position() - lengthAt - Integer.BYTES);
+    }
+
+    /**
+     * Drains whatever is buffered to the channel.
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
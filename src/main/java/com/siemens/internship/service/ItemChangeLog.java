@@ -0,0 +1,239 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemChangeFeedProperties;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.config.ProcessingExecutorConfig;
+import com.siemens.internship.model.ItemChange;
+import com.siemens.internship.model.ItemChangeType;
+import com.siemens.internship.repository.ItemChangeRepository;
+
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes item changes to the item_change outbox, and reads them back as the change feed.
+ *
+ * Writers call record() inside the transaction that makes the change, so a change is in the feed exactly when
+ * it is in the item table. The catch with any outbox is ordering: sequence numbers are handed out when a
+ * transaction writes, but transactions commit in any order, so a reader could see seq 12 while seq 11 is still
+ * uncommitted, move its cursor past 11 and never see it. To avoid that we hand out the sequence numbers here and
+ * remember which transactions are still open; readers only get changes below the oldest open one.
+ * This bookkeeping is per JVM, so it assumes one application instance writes to the database: another instance's
+ * open transactions are invisible here, and readers would move past them. Clustered instances therefore run with
+ * the feed switched off (items.changes.enabled=false), in which case nothing is recorded at all.
+ */
+@Component
+public class ItemChangeLog {
+
+    // Must match the INCREMENT BY of item_change_seq (V5__item_change_sequence_blocks.sql).
+    private static final int SEQUENCE_BLOCK = 50;
+
+    @Autowired
+    private ItemChangeRepository changes;
+
+    @Autowired
+    private ItemChangeFeedProperties properties;
+
+    @Autowired
+    private ItemProcessingProperties processingProperties;
+
+    @Autowired
+    @Qualifier(ProcessingExecutorConfig.ITEM_PROCESSING_EXECUTOR)
+    private ExecutorService executor;
+
+    // Guards the fields below. The database is never called while holding it.
+    private final ReentrantLock lock = new ReentrantLock();
+    // First sequence number of every record() whose transaction hasn't finished yet.
+    private final TreeSet<Long> uncommitted = new TreeSet<>();
+    // Highest sequence number handed out so far; -1 until we've looked at the table.
+    private long lastAllocated = -1;
+    private volatile boolean initialized;
+    // The rest of the current block of sequence numbers: nextSeq up to and including blockEnd.
+    private long nextSeq = 1;
+    private long blockEnd = 0;
+    // First numbers of the blocks reserved but not started on yet.
+    private final TreeSet<Long> spareBlocks = new TreeSet<>();
+    // Completed (and replaced) after every commit that recorded changes, to wake up long-polling readers.
+    private final AtomicReference<CompletableFuture<Void>> nextCommit = new AtomicReference<>(new CompletableFuture<>());
+
+    /**
+     * A feed that silently misses changes is worse than none, so a clustered instance with the feed on doesn't start.
+     */
+    @PostConstruct
+    void checkSingleWriter() {
+        if (properties.isEnabled() && processingProperties.getCluster().isEnabled()) {
+            throw new IllegalStateException("The change feed only works with a single instance writing the items; "
+                    + "set items.changes.enabled=false to enable items.processing.cluster");
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Adds one change row per item to the current transaction, as a single JDBC batch.
+     * Must run inside a transaction: without one there'd be nothing to tie the change and its row together.
+     */
+    public void record(ItemChangeType type, Collection<Long> itemIds) {
+        if (itemIds.isEmpty() || !properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item changes must be recorded inside the transaction that makes them");
+        }
+        initialize();
+        List<Long> seqs = new ArrayList<>(itemIds.size());
+        long taken = -1;
+        try {
+            while (true) {
+                lock.lock();
+                try {
+                    // Registered under the lock, so a reader never sees a sequence number that's taken but not yet
+                    // registered, and as soon as we have it, so the readers' horizon stays below it from then on.
+                    allocate(seqs, itemIds.size());
+                    if (taken < 0 && !seqs.isEmpty()) {
+                        taken = seqs.get(0);
+                        uncommitted.add(taken);
+                    }
+                    if (seqs.size() == itemIds.size()) {
+                        break;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                // Out of numbers: reserve the next block without making every other writer and reader wait for it.
+                long blockStart = changes.nextSequenceBlock();
+                lock.lock();
+                try {
+                    spareBlocks.add(blockStart);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            if (taken >= 0) {
+                finished(taken, false);
+            }
+            throw e;
+        }
+        long first = taken;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                finished(first, status == STATUS_COMMITTED);
+            }
+        });
+        changes.insert(seqs, itemIds, type, Timestamp.from(Instant.now()));
+    }
+
+    public void record(ItemChangeType type, Long itemId) {
+        record(type, List.of(itemId));
+    }
+
+    /**
+     * Up to limit committed changes after the given sequence number, oldest first.
+     */
+    public List<ItemChange> changesSince(long since, int limit) {
+        initialize();
+        long upTo;
+        lock.lock();
+        try {
+            upTo = uncommitted.isEmpty() ? lastAllocated : uncommitted.first() - 1;
+        } finally {
+            lock.unlock();
+        }
+        return upTo <= since ? List.of() : changes.findBetween(since, upTo, limit);
+    }
+
+    /**
+     * Long-polling version of changesSince(): if there's nothing new yet, the future completes as soon as
+     * a transaction with changes commits, or with an empty list once wait has passed.
+     * No thread is blocked while we wait; the follow-up query runs on the processing executor.
+     */
+    public CompletableFuture<List<ItemChange>> awaitChangesSince(long since, int limit, Duration wait) {
+        // Taken before the first query, so a commit that lands in between still wakes us up.
+        CompletableFuture<Void> commit = nextCommit.get();
+        List<ItemChange> available = changesSince(since, limit);
+        if (!available.isEmpty() || !wait.isPositive()) {
+            return CompletableFuture.completedFuture(available);
+        }
+        // A dependent future of our own, so the timeout doesn't complete the shared one for everybody.
+        return commit.thenApply(ignored -> (Void) null)
+                .completeOnTimeout(null, wait.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApplyAsync(ignored -> changesSince(since, limit), executor);
+    }
+
+    private void finished(long first, boolean committed) {
+        lock.lock();
+        try {
+            uncommitted.remove(first);
+        } finally {
+            lock.unlock();
+        }
+        if (committed) {
+            nextCommit.getAndSet(new CompletableFuture<>()).complete(null);
+        }
+    }
+
+    /**
+     * Adds sequence numbers to seqs until it holds count of them or we run out, taking them from the current block
+     * and then from the spare ones, so most changes cost no round trip to the sequence at all. Called under the lock.
+     * Numbers only ever go up: a spare block below what we handed out already (another writer reserved a later block
+     * and got here first) is dropped, since a reader may have moved past it. The sequence has gaps anyway.
+     */
+    private void allocate(List<Long> seqs, int count) {
+        while (seqs.size() < count) {
+            if (nextSeq > blockEnd) {
+                Long start = spareBlocks.pollFirst();
+                while (start != null && start <= lastAllocated) {
+                    start = spareBlocks.pollFirst();
+                }
+                if (start == null) {
+                    return;
+                }
+                nextSeq = start;
+                blockEnd = start + SEQUENCE_BLOCK - 1;
+            }
+            lastAllocated = nextSeq;
+            seqs.add(nextSeq++);
+        }
+    }
+
+    /**
+     * Picks up where the previous run of the application stopped. The query runs outside the lock;
+     * if two threads race here, the first one to take the lock wins.
+     */
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        long latest = changes.findLatestSeq();
+        lock.lock();
+        try {
+            if (lastAllocated < 0) {
+                lastAllocated = latest;
+            }
+            initialized = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
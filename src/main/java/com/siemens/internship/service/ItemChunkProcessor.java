@@ -0,0 +1,91 @@
+package com.siemens.internship.service;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChangeType;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Processes one chunk of items at a time.
+ * The database work happens in two short transactions, one to load the chunk and one to write it back;
+ * the pipeline runs in between, outside of both. Its stages can take seconds for a chunk (the simulated work alone
+ * is 100 ms per item), and that time shouldn't be spent holding a connection, a DB permit and the chunk's rows.
+ */
+@Component
+public class ItemChunkProcessor {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemPipeline pipeline;
+
+    @Autowired
+    private ItemChangeLog changeLog;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DbConcurrencyLimiter dbConcurrencyLimiter;
+
+    /**
+     * Loads the whole chunk with a single select, runs it through the pipeline stages, marks every item
+     * as processed, and writes them back. Only the two database steps wait for a DB permit.
+     * The write reloads the chunk first, so saveAll() merges into those instances instead of selecting every item
+     * on its own, and Hibernate sends the updates as JDBC batches at commit (hibernate.jdbc.batch_size).
+     * The updates check the version the items were loaded with: if someone changed an item while the pipeline was
+     * busy with it, the whole chunk fails with an optimistic locking exception and nothing is written.
+     * If we get interrupted half way (a cancelled run) nothing has been written either.
+     * The chunk's change feed entries go into the write transaction as one more JDBC batch.
+     * The chunk goes through the stages behind the chunks with earlier tickets (see ItemPipeline.reserve());
+     * the ticket stays the caller's to close.
+     */
+    public List<Item> process(List<Long> ids, ItemPipeline.Ticket ticket) throws Exception {
+        List<Item> items = new ArrayList<>(dbConcurrencyLimiter.call(() -> itemRepository.findAllById(ids)));
+        // The stages keep per-key order by the order we hand the items over in, so make that the ID order.
+        items.sort(Comparator.comparing(Item::getId));
+        pipeline.process(ticket, items);
+        items.forEach(this::markProcessed);
+        return dbConcurrencyLimiter.call(() -> transactionTemplate.execute(status -> write(ids, items)));
+    }
+
+    /**
+     * Items deleted since we loaded them are left out: there's nothing to write them over.
+     */
+    private List<Item> write(List<Long> ids, List<Item> items) {
+        Set<Long> existing = itemRepository.findAllById(ids).stream().map(Item::getId).collect(Collectors.toSet());
+        List<Item> saved = itemRepository.saveAll(
+                items.stream().filter(item -> existing.contains(item.getId())).toList());
+        changeLog.record(ItemChangeType.PROCESSED, saved.stream().map(Item::getId).toList());
+        return saved;
+    }
+
+    /**
+     * Processes a single item the same way: through the pipeline, then marked as processed.
+     * The per-item mode goes through here, so every mode runs the same stages.
+     */
+    void processItem(Item item) throws InterruptedException {
+        pipeline.process(List.of(item));
+        markProcessed(item);
+    }
+
+    /**
+     * Once processed, the item no longer belongs to any run, so we also release its claim.
+     */
+    private void markProcessed(Item item) {
+        item.setStatus(ItemStatus.PROCESSED);
+        item.setClaimToken(null);
+        item.setClaimedAt(null);
+    }
+}
@@ -0,0 +1,89 @@
+package com.siemens.internship.service;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+
+
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * The chunk source for incremental processing.
+ * Instead of walking every ID in the table, it only looks at PENDING items and claims each chunk
+ * before handing it out: the chunk is switched to IN_PROGRESS under this run's token in one guarded UPDATE.
+ * Two overlapping runs can therefore never end up with the same item, and a run over a mostly processed
+ * table only costs as much as the items that are still pending.
+ */
+class ItemClaimCursor implements ChunkSource {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IntSupplier chunkSize;
+    private final String token = UUID.randomUUID().toString();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long lastId;
+
+    ItemClaimCursor(ItemRepository itemRepository, TransactionTemplate transactionTemplate, int chunkSize) {
+        this(itemRepository, transactionTemplate, chunkSize, 0L);
+    }
+
+    ItemClaimCursor(ItemRepository itemRepository, TransactionTemplate transactionTemplate, int chunkSize,
+                    long startAfter) {
+        this(itemRepository, transactionTemplate, () -> chunkSize, startAfter);
+    }
+
+    /**
+     * The chunk size is asked for before every chunk, so it can change while the run is going.
+     */
+    ItemClaimCursor(ItemRepository itemRepository, TransactionTemplate transactionTemplate, IntSupplier chunkSize,
+                    long startAfter) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.lastId = startAfter;
+    }
+
+    /**
+     * Picks the next pending IDs and claims them.
+     * If another run got to some of them first we simply get fewer IDs back; if it got all of them
+     * we move on to the next candidates, so an empty result really means nothing pending is left.
+     */
+    @Override
+    public List<Long> next() {
+        lock.lock();
+        try {
+            while (true) {
+                List<Long> candidates = itemRepository.findIdsByStatusAfter(ItemStatus.PENDING, lastId,
+                        Limit.of(chunkSize.getAsInt()));
+                if (candidates.isEmpty()) {
+                    return candidates;
+                }
+                lastId = candidates.get(candidates.size() - 1);
+                List<Long> claimed = transactionTemplate.execute(status -> {
+                    itemRepository.claim(candidates, token, Instant.now(), ItemStatus.PENDING, ItemStatus.IN_PROGRESS);
+                    return itemRepository.findClaimedIds(candidates, token);
+                });
+                if (!claimed.isEmpty()) {
+                    return claimed;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts a chunk we claimed but couldn't process back to PENDING right away,
+     * instead of leaving it IN_PROGRESS until the lease runs out.
+     */
+    @Override
+    public void release(List<Long> ids) {
+        transactionTemplate.executeWithoutResult(status -> itemRepository.releaseClaims(
+                ids, token, ItemStatus.PENDING, ItemStatus.IN_PROGRESS));
+    }
+}
@@ -0,0 +1,106 @@
+package com.siemens.internship.service;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The formats GET /api/items/export can write. Both encode the columns id, name, description, status and email
+ * straight from the JDBC result set, one row at a time, without building an Item for each row.
+ */
+public enum ItemExportFormat {
+
+    /**
+     * RFC 4180 CSV with a header line. Null values are written as empty fields.
+     */
+    CSV("text/csv") {
+        @Override
+        void writeHeader(ExportChannel out) throws IOException {
+            out.putUtf8("id,name,description,status,email\r\n");
+        }
+
+        @Override
+        void writeRow(ResultSet row, ExportChannel out) throws SQLException, IOException {
+            out.putDecimal(row.getLong(1));
+            for (int column = 2; column <= 5; column++) {
+                out.put((byte) ',');
+                writeField(row.getString(column), out);
+            }
+            out.put((byte) '\r');
+            out.put((byte) '\n');
+        }
+
+        private void writeField(String value, ExportChannel out) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (!needsQuotes(value)) {
+                out.putUtf8(value);
+                return;
+            }
+            out.put((byte) '"');
+            out.putUtf8(value.replace("\"", "\"\""));
+            out.put((byte) '"');
+        }
+
+        private boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    },
+
+    /**
+     * A compact length-prefixed binary stream, all numbers big-endian:
+     * <pre>
+     * header:  the ASCII bytes "ITEMS" and a format version byte (1)
+     * row:     byte 1, int64 id, then name, description, status and email, each as an int32 byte length
+     *          (-1 for null) followed by that many UTF-8 bytes
+     * trailer: byte 0, int64 number of rows
+     * </pre>
+     * The trailer tells a reader the export finished, instead of having been cut off halfway.
+     */
+    BINARY("application/x-item-rows") {
+        @Override
+        void writeHeader(ExportChannel out) throws IOException {
+            out.putUtf8("ITEMS");
+            out.put((byte) 1);
+        }
+
+        @Override
+        void writeRow(ResultSet row, ExportChannel out) throws SQLException, IOException {
+            out.put((byte) 1);
+            out.putLong(row.getLong(1));
+            for (int column = 2; column <= 5; column++) {
+                out.putLengthPrefixed(row.getString(column));
+            }
+        }
+
+        @Override
+        void writeTrailer(long rows, ExportChannel out) throws IOException {
+            out.put((byte) 0);
+            out.putLong(rows);
+        }
+    };
+
+    private final String contentType;
+
+    ItemExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    abstract void writeHeader(ExportChannel out) throws IOException;
+
+    abstract void writeRow(ResultSet row, ExportChannel out) throws SQLException, IOException;
+
+    void writeTrailer(long rows, ExportChannel out) throws IOException {
+    }
+}
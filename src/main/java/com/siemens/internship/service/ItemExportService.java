@@ -0,0 +1,84 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemExportProperties;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Streams the whole item table to a client in one pass.
+ * Rows come from a forward-only JDBC cursor and are encoded straight into a single reused buffer,
+ * so there's no Item entity, persistence context or per-row byte array involved, and an export of
+ * ten million rows uses the same memory as one of ten.
+ */
+@Service
+public class ItemExportService {
+
+    // Primary key order: H2 walks the PK index and can hand out rows as it reads them, without sorting first.
+    private static final String EXPORT_SQL = "SELECT id, name, description, status, email FROM item ORDER BY id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemExportProperties properties;
+
+    /**
+     * Writes every item to the stream in the given format and returns how many rows were written.
+     * The stream is flushed but not closed.
+     */
+    public long export(ItemExportFormat format, OutputStream out) {
+        ExportChannel channel = new ExportChannel(Channels.newChannel(out), properties.getBufferSize());
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            // By default H2 materialises the whole result before returning the first row; lazy execution makes
+            // it produce rows while the cursor advances. It's a session setting, so we switch it back afterwards
+            // before the connection goes back to the pool.
+            setLazy(connection, true);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(properties.getFetchSize());
+                try (ResultSet row = statement.executeQuery()) {
+                    return write(format, row, channel);
+                }
+            } finally {
+                setLazy(connection, false);
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private long write(ItemExportFormat format, ResultSet row, ExportChannel channel) throws SQLException {
+        try {
+            long count = 0;
+            format.writeHeader(channel);
+            while (row.next()) {
+                format.writeRow(row, channel);
+                count++;
+            }
+            format.writeTrailer(count, channel);
+            channel.flush();
+            return count;
+        } catch (IOException e) {
+            // Most likely the client went away; there's nobody left to answer, so just stop reading.
+            throw new UncheckedIOException("Failed to write item export", e);
+        }
+    }
+
+    private static void setLazy(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.repository.ItemRepository;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A shared keyset cursor over the item IDs.
+ * Every worker asks it for the next chunk, so the table is read page by page
+ * and no one ever holds the full list of IDs in memory.
+ */
+class ItemIdCursor implements ChunkSource {
+
+    private final ItemRepository itemRepository;
+    private final int chunkSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long lastId;
+
+    /**
+     * Generated IDs start at 1, so starting from 0 means the first call returns the first page.
+     */
+    ItemIdCursor(ItemRepository itemRepository, int chunkSize) {
+        this(itemRepository, chunkSize, 0L);
+    }
+
+    ItemIdCursor(ItemRepository itemRepository, int chunkSize, long startAfter) {
+        this.itemRepository = itemRepository;
+        this.chunkSize = chunkSize;
+        this.lastId = startAfter;
+    }
+
+    /**
+     * Hands out the next chunk of IDs, or an empty list once we've walked past the end of the table.
+     * It's guarded by a lock so two workers can never get the same chunk.
+     * We use a ReentrantLock rather than synchronized because the query blocks on JDBC,
+     * and blocking inside a synchronized block pins a virtual thread to its carrier.
+     */
+    @Override
+    public List<Long> next() {
+        lock.lock();
+        try {
+            List<Long> ids = itemRepository.findIdsAfter(lastId, Limit.of(chunkSize));
+            if (!ids.isEmpty()) {
+                lastId = ids.get(ids.size() - 1);
+            }
+            return ids;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.siemens.internship.service;
+import com.siemens.internship.model.ItemJsonSerializer;
+
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the item listing that hasn't been read yet.
+ * Only when Jackson serializes it (that is, while the response is being written) do we run the query, and every row
+ * goes from the ResultSet straight into the response's JsonGenerator: no entities, no persistence context,
+ * no maps or lists in between. The JSON is the same as for a list of Items (or, with fields, of maps holding
+ * just those fields).
+ */
+public class ItemJsonPage implements JsonSerializable {
+
+    // The columns are named like the JSON fields.
+    static final Map<String, SerializedString> FIELDS = Map.of(
+            "id", ItemJsonSerializer.ID,
+            "name", ItemJsonSerializer.NAME,
+            "description", ItemJsonSerializer.DESCRIPTION,
+            "status", ItemJsonSerializer.STATUS,
+            "email", ItemJsonSerializer.EMAIL);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<String> fields;
+    private final long after;
+    private final int size;
+    private final Long nextCursor;
+
+    ItemJsonPage(JdbcTemplate jdbcTemplate, List<String> fields, long after, int size, Long nextCursor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fields = fields;
+        this.after = after;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * The ID of the page's last item if the page is full, null on the last page.
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * A full page is read up to and including its cursor rather than by count, so the cursor handed to the client
+     * is always the last item it got. Should an item with a lower ID have been committed since the cursor was
+     * looked up, the page simply has one more item, instead of leaving out the one its cursor points at.
+     */
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        SerializedString[] names = new SerializedString[fields.size()];
+        boolean[] numeric = new boolean[fields.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = FIELDS.get(fields.get(i));
+            numeric[i] = names[i] == ItemJsonSerializer.ID;
+        }
+        String sql = "SELECT " + String.join(", ", fields) + " FROM item WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+        gen.writeStartArray();
+        try {
+            jdbcTemplate.query(sql, (RowCallbackHandler) row -> writeRow(row, gen, names, numeric), after,
+                    nextCursor == null ? Long.MAX_VALUE : nextCursor, nextCursor == null ? size : Integer.MAX_VALUE);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        gen.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    private static void writeRow(ResultSet row, JsonGenerator gen, SerializedString[] names, boolean[] numeric)
+            throws SQLException {
+        try {
+            gen.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                gen.writeFieldName(names[i]);
+                if (numeric[i]) {
+                    gen.writeNumber(row.getLong(i + 1));
+                } else {
+                    gen.writeString(row.getString(i + 1));
+                }
+            }
+            gen.writeEndObject();
+        } catch (IOException e) {
+            // The client went away; the row callback can't throw IOException, so it travels out unchecked.
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.siemens.internship.service;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Pages of the item listing, written to the client straight from the database rows (see ItemJsonPage).
+ */
+@Service
+public class ItemListingService {
+
+    /**
+     * Every field of an item, in the order the JSON has them.
+     */
+    public static final List<String> ALL_FIELDS = List.of("id", "name", "description", "status", "email");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The page of items after the given ID, holding only the given fields.
+     * The next page's cursor has to go into a header, so before the body it's looked up on its own: the size-th ID
+     * after the cursor, a short walk along the primary key index. The rows themselves are only read once the page
+     * is serialized.
+     */
+    public ItemJsonPage page(long after, int size, List<String> fields) {
+        List<String> unknown = fields.stream().filter(field -> !ItemJsonPage.FIELDS.containsKey(field)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown field(s): " + String.join(", ", unknown));
+        }
+        List<Long> last = jdbcTemplate.queryForList("SELECT id FROM item WHERE id > ? ORDER BY id LIMIT 1 OFFSET ?",
+                Long.class, after, size - 1);
+        return new ItemJsonPage(jdbcTemplate, fields, after, size, last.isEmpty() ? null : last.get(0));
+    }
+}
@@ -0,0 +1,234 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.Item;
+
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs items through the ItemProcessor stages.
+ * Each stage owns a fixed set of striped lanes, and every lane is a single-threaded executor.
+ * An item goes to the lane picked by the hash of its ordering key, so items sharing a key are never
+ * processed at the same time and keep their order, while the other lanes work in parallel.
+ * The lanes are shared by all chunks in flight, which also makes them the stage's concurrency limit.
+ * Stages run one after another: a chunk only enters the next stage once every lane has finished it.
+ * Across chunks, the order comes from tickets: a chunk takes one when it's claimed (see reserve()), and every stage
+ * lets chunks hand their items to the lanes strictly in ticket order. A lane runs its tasks first come, first served,
+ * so a key's items from an earlier chunk are always done before the same key's items from a later one,
+ * even when the later chunk got loaded first.
+ */
+@Component
+public class ItemPipeline {
+
+    private final List<Stage> stages = new ArrayList<>();
+    private final AtomicLong tickets = new AtomicLong();
+
+    /**
+     * Spring hands us the ItemProcessor beans already sorted by @Order.
+     */
+    public ItemPipeline(List<ItemProcessor> processors, ItemProcessingProperties properties,
+                        ProcessingMetrics metrics) {
+        for (ItemProcessor processor : processors) {
+            int parallelism = processor.parallelism() > 0
+                    ? processor.parallelism()
+                    : properties.getStageParallelism();
+            stages.add(new Stage(processor, parallelism, metrics.itemTimer(processor.name())));
+        }
+    }
+
+    /**
+     * Takes the next place in line. Take it at the moment the chunk is claimed (under the same lock, if claims
+     * happen concurrently), so chunks go through the stages in the order they were handed out,
+     * and close it once done with the chunk: every stage the chunk never got to holds back the later chunks until then.
+     */
+    public Ticket reserve() {
+        return new Ticket(tickets.getAndIncrement());
+    }
+
+    /**
+     * Sends the items through every stage, in order, taking their place in line right now.
+     */
+    public void process(List<Item> items) throws InterruptedException {
+        try (Ticket ticket = reserve()) {
+            process(ticket, items);
+        }
+    }
+
+    /**
+     * Sends the items through every stage, in order, behind the chunks with earlier tickets.
+     * Items are handed to their lane in list order, so pass them sorted by ID to get per-key ID order.
+     * If the calling thread is interrupted (a cancelled run), the work still queued or running on the lanes
+     * is cancelled as well and InterruptedException is thrown, so the caller's transaction rolls back.
+     */
+    public void process(Ticket ticket, List<Item> items) throws InterruptedException {
+        while (ticket.stagesEntered < stages.size()) {
+            Stage stage = stages.get(ticket.stagesEntered);
+            List<Future<?>> pending = stage.submit(ticket.sequence, items);
+            ticket.stagesEntered++;
+            stage.await(pending);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stages.forEach(Stage::shutdown);
+    }
+
+    /**
+     * A chunk's place in line. It belongs to the thread processing the chunk.
+     */
+    public final class Ticket implements AutoCloseable {
+
+        private final long sequence;
+        private int stagesEntered;
+
+        private Ticket(long sequence) {
+            this.sequence = sequence;
+        }
+
+        /**
+         * Gives up the place in every stage the chunk didn't get to (failed to load, failed in a stage, cancelled),
+         * so the chunks behind it don't wait for it forever.
+         */
+        @Override
+        public void close() {
+            for (; stagesEntered < stages.size(); stagesEntered++) {
+                stages.get(stagesEntered).leave(sequence);
+            }
+        }
+    }
+
+    private static final class Stage {
+
+        private final ItemProcessor processor;
+        private final ExecutorService[] lanes;
+        private final Timer timer;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition turnTaken = lock.newCondition();
+        // The ticket whose turn it is to submit, and the later tickets that already left out of turn.
+        private long nextTicket;
+        private final Set<Long> leftEarly = new HashSet<>();
+
+        Stage(ItemProcessor processor, int parallelism, Timer timer) {
+            this.processor = processor;
+            this.timer = timer;
+            // Virtual threads, so a stage that blocks (sleeps, calls other services) doesn't hold on to a core.
+            this.lanes = new ExecutorService[parallelism];
+            for (int i = 0; i < parallelism; i++) {
+                lanes[i] = Executors.newSingleThreadExecutor(
+                        Thread.ofVirtual().name("item-stage-" + processor.name() + "-" + i).factory());
+            }
+        }
+
+        /**
+         * Waits for the ticket's turn, splits the items by lane and submits one task per lane.
+         * Items without a key are spread round-robin.
+         * Only the submitting happens in turn; the lanes then work on the chunk alongside the others.
+         * The turn is given up even when waiting for it gets interrupted, since the ticket is done with the stage.
+         */
+        List<Future<?>> submit(long ticket, List<Item> items) throws InterruptedException {
+            try {
+                lock.lock();
+                try {
+                    while (nextTicket != ticket) {
+                        turnTaken.await();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                return submit(items);
+            } finally {
+                leave(ticket);
+            }
+        }
+
+        /**
+         * The ticket is done submitting to this stage, or will never submit; the next ones in line may go.
+         */
+        void leave(long ticket) {
+            lock.lock();
+            try {
+                if (ticket >= nextTicket) {
+                    leftEarly.add(ticket);
+                }
+                while (leftEarly.remove(nextTicket)) {
+                    nextTicket++;
+                }
+                turnTaken.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<Future<?>> submit(List<Item> items) {
+            List<List<Item>> perLane = new ArrayList<>(lanes.length);
+            for (int i = 0; i < lanes.length; i++) {
+                perLane.add(new ArrayList<>());
+            }
+            for (int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+                Object key = processor.orderingKey(item);
+                int lane = key == null ? i % lanes.length : Math.floorMod(Objects.hashCode(key), lanes.length);
+                perLane.get(lane).add(item);
+            }
+
+            List<Future<?>> pending = new ArrayList<>(lanes.length);
+            for (int i = 0; i < lanes.length; i++) {
+                List<Item> laneItems = perLane.get(i);
+                if (!laneItems.isEmpty()) {
+                    pending.add(lanes[i].submit(() -> {
+                        for (Item item : laneItems) {
+                            long start = System.nanoTime();
+                            processor.process(item);
+                            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                        return null;
+                    }));
+                }
+            }
+            return pending;
+        }
+
+        void await(List<Future<?>> pending) throws InterruptedException {
+            try {
+                for (Future<?> future : pending) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                pending.forEach(future -> future.cancel(true));
+                throw e;
+            } catch (ExecutionException e) {
+                pending.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof InterruptedException interrupted) {
+                    throw interrupted;
+                }
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException("Stage " + processor.name() + " failed", e.getCause());
+            }
+        }
+
+        void shutdown() {
+            for (ExecutorService lane : lanes) {
+                lane.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.siemens.internship.service;
+import com.siemens.internship.model.Item;
+
+/**
+ * One stage of the processing pipeline. Every ItemProcessor bean becomes a stage, and the stages run
+ * in @Order order on every chunk before the items are marked as PROCESSED.
+ * To add a real step (enrichment, validation against another system, ...) just register another bean.
+ *
+ * Items are spread over the stage's lanes by their ordering key: items with the same key always land
+ * on the same single-threaded lane, so they are processed one after another, in ID order,
+ * while items with different keys run in parallel.
+ */
+public interface ItemProcessor {
+
+    /**
+     * A short name for the stage, used for its thread names and the per-stage timer.
+     */
+    String name();
+
+    /**
+     * Does this stage's work on one item. Runs on a detached copy of the item, outside any transaction, so it can
+     * take its time without holding a connection; the chunk's write afterwards saves the changes together with
+     * the PROCESSED status. Throwing fails the whole chunk, and nothing of it is written.
+     */
+    void process(Item item) throws InterruptedException;
+
+    /**
+     * Items with equal keys are processed in order, never at the same time. A null key means the item
+     * can go to any lane. By default items are ordered per email address.
+     */
+    default Object orderingKey(Item item) {
+        return item.getEmail();
+    }
+
+    /**
+     * How many lanes this stage runs on. Zero or less means items.processing.stage-parallelism.
+     */
+    default int parallelism() {
+        return 0;
+    }
+}
@@ -1,40 +1,253 @@
 package com.siemens.internship.service;
+import com.siemens.internship.config.CacheConfig;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.config.ProcessingExecutorConfig;
+import com.siemens.internship.config.ItemProcessingProperties.ClusterSettings;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChangeType;
+import com.siemens.internship.model.ItemStatus;
 import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ItemSearch;
+import com.siemens.internship.repository.ProcessingPartitionRepository;
+import com.siemens.internship.repository.ProcessingRunRepository;
+import com.siemens.internship.repository.ProcessingRunRepository.InterruptedRun;
+import com.siemens.internship.repository.ProcessingRunRepository.RunState;
 
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
 @Service
 public class ItemService {
+    private static final Logger log = LoggerFactory.getLogger(ItemService.class);
+
     @Autowired
     private ItemRepository itemRepository;
-    private static ExecutorService executor = Executors.newFixedThreadPool(10);
+    @Autowired
+    private ItemChunkProcessor itemChunkProcessor;
+    @Autowired
+    private ItemPipeline pipeline;
+    @Autowired
+    private ItemProcessingProperties properties;
+    @Autowired
+    private DbConcurrencyLimiter dbConcurrencyLimiter;
+    @Autowired
+    private ProcessingMetrics metrics;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ProcessingRunRepository processingRuns;
+    @Autowired
+    private ProcessingPartitionRepository partitions;
+    @Autowired
+    private ItemChangeLog changeLog;
+    // Spring-managed (see ProcessingExecutorConfig), so it's configurable and shut down with the context.
+    @Autowired
+    @Qualifier(ProcessingExecutorConfig.ITEM_PROCESSING_EXECUTOR)
+    private ExecutorService executor;
     private List<Item> processedItems = new ArrayList<>();
     private int processedCount = 0;
+    private volatile boolean shuttingDown;
+    // The PARTITIONED runs this instance is working on right now, coordinating or just helping.
+    private final Map<UUID, ProcessingRun> partitionedRuns = new ConcurrentHashMap<>();
+    // Every chunked run going on in this instance, however it was started, so a shutdown can stop them all.
+    private final Set<ProcessingRun> activeRuns = ConcurrentHashMap.newKeySet();
 
 
     public List<Item> findAll() {
         return itemRepository.findAll();
     }
 
+    /**
+     * One page of the items matching the search, after the given ID (keyset pagination, like the listing).
+     */
+    public List<Item> search(ItemSearch search, long after, int size) {
+        return itemRepository.search(search, after, size);
+    }
+
+    /**
+     * Read-through cached lookup. GET, PUT and DELETE all start with this call,
+     * so hot IDs are served from memory instead of hitting the database every time.
+     * Misses are not cached, so probing for random IDs can't fill the cache with empty entries.
+     */
+    @Cacheable(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id", unless = "#result == null")
     public Optional<Item> findById(Long id) {
         return itemRepository.findById(id);
     }
 
+    /**
+     * Saving replaces the cached copy with the freshly saved item, so the next lookup is still a hit.
+     * An item without an ID is new and gets inserted; anything else is an update of a detached item,
+     * written with one versioned UPDATE (see updateDetached()). Either way the change feed gets its entry
+     * in the same transaction.
+     */
+    @CachePut(cacheNames = CacheConfig.ITEMS_CACHE, key = "#result.id")
     public Item save(Item item) {
-        return itemRepository.save(item);
+        if (item.getId() == null) {
+            return transactionTemplate.execute(status -> {
+                Item saved = itemRepository.save(item);
+                changeLog.record(ItemChangeType.CREATED, saved.getId());
+                return saved;
+            });
+        }
+        return transactionTemplate.execute(status -> updateDetached(item, ItemChangeType.UPDATED));
     }
 
+    /**
+     * Writes a detached item back without merge(): merge() would first SELECT the row to copy the item onto,
+     * costing a second statement per update. The UPDATE checks the version itself, so a concurrent change still
+     * fails with an OptimisticLockingFailureException, exactly like merge() would at flush time.
+     * Must run inside a transaction.
+     * An item that comes without a version is taken to be at 0, the version every row starts with.
+     * One without a status keeps the row's status, which we then read back so the returned (and cached) item has it.
+     */
+    private Item updateDetached(Item item, ItemChangeType type) {
+        if (item.getVersion() == null) {
+            item.setVersion(0L);
+        }
+        if (itemRepository.update(item) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+        }
+        item.setVersion(item.getVersion() + 1);
+        if (item.getStatus() == null) {
+            itemRepository.findById(item.getId()).map(Item::getStatus).ifPresent(item::setStatus);
+        }
+        changeLog.record(type, item.getId());
+        return item;
+    }
+
+    /**
+     * Partial update: writes only the non-null fields of changes, with one targeted UPDATE and no select.
+     * With an expectedVersion the row is only touched while it still has that version.
+     * Returns false if nothing was updated, i.e. the item is gone or the version didn't match.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id")
+    public boolean patch(Long id, Item changes, Long expectedVersion) {
+        Boolean updated = transactionTemplate.execute(status -> {
+            if (itemRepository.patch(id, changes, expectedVersion) == 0) {
+                return false;
+            }
+            changeLog.record(ItemChangeType.UPDATED, id);
+            return true;
+        });
+        return Boolean.TRUE.equals(updated);
+    }
+
+    public boolean existsById(Long id) {
+        return itemRepository.existsById(id);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id")
     public void deleteById(Long id) {
-        itemRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.deleteById(id);
+            changeLog.record(ItemChangeType.DELETED, id);
+        });
+    }
+
+    public List<Item> findAllById(Collection<Long> ids) {
+        return itemRepository.findAllById(ids);
+    }
+
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        return itemRepository.findExistingIds(ids);
+    }
+
+    /**
+     * Inserts a batch of new items in one transaction.
+     * IDs come from the pooled sequence and inserts are ordered, so Hibernate sends them
+     * as a handful of JDBC batches instead of one INSERT round trip per item.
+     */
+    public List<Item> createAll(List<Item> items) {
+        items.forEach(item -> item.setId(null));
+        return transactionTemplate.execute(status -> {
+            List<Item> created = itemRepository.saveAll(items);
+            changeLog.record(ItemChangeType.CREATED, created.stream().map(Item::getId).toList());
+            return created;
+        });
+    }
+
+    /**
+     * Writes a batch of already validated updates in one transaction.
+     * We load the current rows with a single select first, so saveAll() merges into
+     * managed entities instead of issuing one select per item, and the updates go out as JDBC batches.
+     * Cached copies are dropped only after the commit, so readers can't re-cache the old values.
+     */
+    public List<Item> updateAll(List<Item> items) {
+        List<Long> ids = items.stream().map(Item::getId).toList();
+        List<Item> updated = transactionTemplate.execute(status -> {
+            itemRepository.findAllById(ids);
+            List<Item> saved = itemRepository.saveAll(items);
+            changeLog.record(ItemChangeType.UPDATED, ids);
+            return saved;
+        });
+        evictFromCache(ids);
+        return updated;
+    }
+
+    /**
+     * Deletes all given IDs with a single DELETE ... WHERE id IN (...) statement.
+     */
+    public void deleteAllById(List<Long> ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.deleteAllByIdInBatch(ids);
+            changeLog.record(ItemChangeType.DELETED, ids);
+        });
+        evictFromCache(ids);
+    }
+
+    /**
+     * Drops a whole batch of IDs from the item cache in one call.
+     * Processing uses this once per committed chunk instead of evicting key by key,
+     * so the cache never serves a PENDING copy of an item that has already been processed.
+     */
+    void evictFromCache(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.ITEMS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            @SuppressWarnings("unchecked")
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> items =
+                    (com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine;
+            items.invalidateAll(ids);
+        } else {
+            ids.forEach(cache::evict);
+        }
     }
 
 
@@ -62,16 +275,470 @@ public class ItemService {
 
    /**
      * This methd is responsible for asynchronously processing every item in the database.
-     * The idea is to fetch all item IDs first, then process each of them in parallel threads.
-     * While processing, we mrk each item as "PROCESSED" and save the updated version.
-     * At the end, we collect all succesfully processed items into a list and return themm
-     * as a CompletableFuture, so that the controller can await the result when it's ready.
+     * Depending on items.processing.mode we either walk the table in chunks (the default),
+     * only claim and process pending items in chunks, or fall back to the original one-task-per-item approach.
+     * Either way, the returned CompletableFuture completes only once every item has been handled,
+     * and it carries the list of items that were successfully processed.
      */
-    @Async
+    @Async(ProcessingExecutorConfig.ITEM_PROCESSING_EXECUTOR)
     public CompletableFuture<List<Item>> processItemsAsync() {
+        if (properties.getMode() != ProcessingMode.PER_ITEM) {
+            // Chunks finish on different threads, so we collect them into a synchronized list.
+            List<Item> successfullyProcessed = Collections.synchronizedList(new ArrayList<>());
+            return processItemsInChunks(successfullyProcessed::addAll)
+                    .thenApply(count -> successfullyProcessed);
+        }
+        return processItemsOneByOne();
+    }
+
+    /**
+     * Processes the items chunk by chunk, using the configured mode (see processItemsInChunks(ProcessingMode, Consumer)).
+     */
+    public CompletableFuture<Long> processItemsInChunks(Consumer<List<Item>> chunkListener) {
+        return processItemsInChunks(properties.getMode(), chunkListener);
+    }
+
+    /**
+     * Processes the table chunk by chunk.
+     * In INCREMENTAL mode only PENDING items are claimed and processed; any other mode walks every ID.
+     * We start maxInFlightChunks workers that all pull from the same chunk source:
+     * each worker takes the next chunk of IDs, loads it with one findAllById(), marks it as processed,
+     * writes it back with a batched saveAll(), and then asks for the next chunk.
+     * Since there are never more than maxInFlightChunks chunks being worked on, memory stays flat
+     * no matter how big the table grows.
+     * Every finished chunk is handed to the chunkListener, and the future completes with the number
+     * of processed items once the source runs dry and all workers are done.
+     */
+    public CompletableFuture<Long> processItemsInChunks(ProcessingMode mode, Consumer<List<Item>> chunkListener) {
+        return processItemsInChunks(mode, new ProcessingRun(), chunkListener);
+    }
+
+    /**
+     * Same as above, but progress is tracked in (and the run can be cancelled through) the given ProcessingRun.
+     * A cancelled run stops handing out chunks and completes normally with the number of items processed so far.
+     * However it ends, the run's duration is recorded in the items.processing.run timer.
+     * The run is also recorded in processing_run under the run's ID, with a checkpoint that follows the committed
+     * chunks (see CheckpointedChunkSource), so it can be resumed if the application stops before it's done.
+     * A PARTITIONED run is shared out across the cluster; if one is already going we help with that one
+     * instead of starting a second run over the same rows (and the future counts only what we processed).
+     */
+    public CompletableFuture<Long> processItemsInChunks(ProcessingMode mode, ProcessingRun run,
+                                                        Consumer<List<Item>> chunkListener) {
+        return tracked(run, () -> {
+            if (mode == ProcessingMode.PARTITIONED) {
+                UUID runId = startPartitionedRun(run.getId());
+                if (!runId.equals(run.getId())) {
+                    return joinPartitionedRun(runId, run, chunkListener);
+                }
+            } else {
+                startRun(run, mode);
+            }
+            return runChunks(mode, run, 0L, chunkListener);
+        });
+    }
+
+    /**
+     * Keeps the run in activeRuns until it's over, so onContextClosed() can cancel it. A run that starts
+     * while we're already shutting down is cancelled right away and hands out no chunks at all.
+     */
+    private CompletableFuture<Long> tracked(ProcessingRun run, Supplier<CompletableFuture<Long>> start) {
+        activeRuns.add(run);
+        if (shuttingDown) {
+            run.cancel();
+        }
+        try {
+            return start.get().whenComplete((processed, error) -> activeRuns.remove(run));
+        } catch (RuntimeException e) {
+            activeRuns.remove(run);
+            throw e;
+        }
+    }
+
+    /**
+     * Records a new (not partitioned) run; in a cluster it's leased to us, so another instance can take it over.
+     */
+    private void startRun(ProcessingRun run, ProcessingMode mode) {
+        if (properties.getCluster().isEnabled()) {
+            ClusterSettings cluster = properties.getCluster();
+            processingRuns.startRun(run.getId(), mode, cluster.getInstanceId(), cluster.getLease());
+        } else {
+            processingRuns.startRun(run.getId(), mode);
+        }
+    }
+
+    /**
+     * One sweep of the background processor: an INCREMENTAL run over the pending items, recorded, checkpointed
+     * and retried like any other, but with the batch size and the number of batches in flight following the sizer
+     * (see AdaptiveChunkSource), and holding back while paused says so.
+     * Up to the sizer's maximum concurrency workers are started; the ones over the current concurrency just wait.
+     */
+    public CompletableFuture<Long> processPendingItems(ProcessingRun run, AdaptiveBatchSizer sizer,
+                                                       BooleanSupplier paused) {
+        return tracked(run, () -> {
+            startRun(run, ProcessingMode.INCREMENTAL);
+            long start = System.nanoTime();
+            ChunkSource claims = new CheckpointedChunkSource(claimCursor(0L, sizer::getBatchSize), processingRuns,
+                    run.getId(), 0L);
+            AdaptiveChunkSource source = new AdaptiveChunkSource(claims, sizer, run, paused,
+                    dbConcurrencyLimiter::getQueueLength, properties.getBackground().getPauseInterval());
+            Consumer<List<Item>> ignored = chunk -> { };
+            return afterDrain(ProcessingMode.INCREMENTAL, run, start,
+                    drainWith(source, run.getId(), run, sizer.getMaxConcurrency(), ignored), ignored);
+        });
+    }
+
+    /**
+     * Records a new PARTITIONED run with its partitions, in one transaction so no instance ever sees the run
+     * without them. Returns the ID of the partitioned run that is actually going: ours, or the one another
+     * instance started first.
+     */
+    private UUID startPartitionedRun(UUID id) {
+        ClusterSettings cluster = clusterSettings();
+        while (true) {
+            Boolean started = transactionTemplate.execute(status -> {
+                if (!processingRuns.startPartitionedRun(id, cluster.getInstanceId(), cluster.getLease())) {
+                    return false;
+                }
+                Long firstId = itemRepository.findMinId();
+                if (firstId != null) {
+                    int count = partitions.createPartitions(id, firstId, itemRepository.findMaxId(),
+                            cluster.getPartitionSize());
+                    log.info("Started partitioned processing run {} with {} partitions", id, count);
+                }
+                return true;
+            });
+            if (Boolean.TRUE.equals(started)) {
+                return id;
+            }
+            Optional<UUID> active = processingRuns.findActivePartitionedRun();
+            if (active.isPresent()) {
+                return active.get();
+            }
+            // The run that was in our way has finished in the meantime, so we can start ours after all.
+        }
+    }
+
+    /**
+     * Helps with a PARTITIONED run another instance coordinates: works on its partitions until they're all done.
+     * Retrying failed items and finishing the run are left to the coordinator. The future completes with
+     * the number of items processed here. Does nothing if we're working on the run already.
+     */
+    public CompletableFuture<Long> joinPartitionedRun(UUID runId) {
+        if (isWorkingOn(runId)) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        log.info("Joining partitioned processing run {}", runId);
+        return joinPartitionedRun(runId, new ProcessingRun(runId), chunk -> { });
+    }
+
+    private CompletableFuture<Long> joinPartitionedRun(UUID runId, ProcessingRun run, Consumer<List<Item>> chunkListener) {
+        long start = System.nanoTime();
+        return drainPartitions(runId, run, chunkListener)
+                .whenComplete((voidResult, error) -> metrics.recordRun(ProcessingMode.PARTITIONED, start))
+                .thenApply(voidResult -> run.getProcessed());
+    }
+
+    public boolean isWorkingOn(UUID runId) {
+        return partitionedRuns.containsKey(runId);
+    }
+
+    private ClusterSettings clusterSettings() {
+        ClusterSettings cluster = properties.getCluster();
+        if (!cluster.isEnabled()) {
+            throw new IllegalStateException("PARTITIONED processing needs items.processing.cluster.enabled=true");
+        }
+        return cluster;
+    }
+
+    /**
+     * Continues a run that was interrupted by a crash or a shutdown: only items after its checkpoint are walked
+     * (or claimed), and its failed items are retried where their backoff left off. Everything at or below the
+     * checkpoint was already committed, so a restart only costs the unfinished work.
+     */
+    public CompletableFuture<Long> resumeItemsInChunks(InterruptedRun interrupted, ProcessingRun run) {
+        log.info("Resuming {} processing run {} after item {}", interrupted.mode(), interrupted.id(),
+                interrupted.checkpointId());
+        return tracked(run, () -> runChunks(interrupted.mode(), run, interrupted.checkpointId(), chunk -> { }));
+    }
+
+    /**
+     * We start maxInFlightChunks workers that all pull from the same chunk source until it runs dry,
+     * then one more worker retries the items of failed chunks with exponential backoff
+     * until they all went through or ran out of attempts.
+     * In a PARTITIONED run the source runs dry once every instance is done with its partitions;
+     * the retries are then up to us, the coordinator.
+     */
+    private CompletableFuture<Long> runChunks(ProcessingMode mode, ProcessingRun run, long startAfter,
+                                              Consumer<List<Item>> chunkListener) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> drained;
+        if (mode == ProcessingMode.PARTITIONED) {
+            drained = drainPartitions(run.getId(), run, chunkListener);
+        } else {
+            ChunkSource cursor = mode == ProcessingMode.INCREMENTAL
+                    ? claimCursor(startAfter)
+                    : new ItemIdCursor(itemRepository, properties.getChunkSize(), startAfter);
+            drained = drainWith(new CheckpointedChunkSource(cursor, processingRuns, run.getId(), startAfter),
+                    run.getId(), run, properties.getMaxInFlightChunks(), chunkListener);
+        }
+        return afterDrain(mode, run, start, drained, chunkListener);
+    }
+
+    /**
+     * Once the chunk source has run dry, retries the failed items and records how the run ended.
+     */
+    private CompletableFuture<Long> afterDrain(ProcessingMode mode, ProcessingRun run, long start,
+                                               CompletableFuture<Void> drained, Consumer<List<Item>> chunkListener) {
+        return drained
+                .thenCompose(voidResult -> runWorker(run, () -> retryFailures(run, chunkListener)))
+                .whenComplete((voidResult, error) -> {
+                    finishRun(run, error);
+                    metrics.recordRun(mode, start);
+                })
+                .thenApply(voidResult -> run.getProcessed());
+    }
+
+    private CompletableFuture<Void> drainWith(ChunkSource source, UUID runId, ProcessingRun run, int workerCount,
+                                              Consumer<List<Item>> chunkListener) {
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        ReentrantLock claims = new ReentrantLock();
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(runWorker(run, () -> drain(source, claims, runId, run, chunkListener)));
+        }
+        return CompletableFuture.allOf(workers.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Works on the partitions of the given run (see PartitionedChunkSource) until they're all done,
+     * and hands back the ones we still hold if we stop before that.
+     */
+    private CompletableFuture<Void> drainPartitions(UUID runId, ProcessingRun run, Consumer<List<Item>> chunkListener) {
+        ClusterSettings cluster = clusterSettings();
+        PartitionedChunkSource source = new PartitionedChunkSource(partitions, itemRepository, runId, run,
+                cluster.getInstanceId(), cluster.getLease(), cluster.getHeartbeatInterval(), properties.getChunkSize());
+        partitionedRuns.put(runId, run);
+        return drainWith(source, runId, run, properties.getMaxInFlightChunks(), chunkListener)
+                .whenComplete((voidResult, error) -> {
+                    partitionedRuns.remove(runId, run);
+                    source.close();
+                });
+    }
+
+    private CompletableFuture<Void> runWorker(ProcessingRun run, Runnable work) {
+        return CompletableFuture.runAsync(() -> {
+            run.register(Thread.currentThread());
+            try {
+                work.run();
+            } finally {
+                run.unregister(Thread.currentThread());
+            }
+        }, executor);
+    }
+
+    /**
+     * Records how the run ended. A run cancelled because the application is shutting down stays RUNNING,
+     * so the next start resumes it; one cancelled by a client is CANCELLED and stays that way.
+     * In a cluster we also give up the run's lease, so another instance takes it over right away.
+     */
+    private void finishRun(ProcessingRun run, Throwable error) {
+        if (run.isCancelled() && shuttingDown) {
+            if (properties.getCluster().isEnabled()) {
+                processingRuns.disown(run.getId(), properties.getCluster().getInstanceId());
+            }
+            return;
+        }
+        RunState state = error != null ? RunState.FAILED : run.isCancelled() ? RunState.CANCELLED : RunState.COMPLETED;
+        processingRuns.finishRun(run.getId(), state);
+    }
+
+    /**
+     * Stops every run going on here before the processing executor is closed, since closing it waits for the workers:
+     * runs started through /process and /process/stream, background sweeps and resumed runs, and the partitioned
+     * runs we only help with, so their partitions are handed back while the database is still there.
+     * Jobs are cancelled by ProcessingJobService as well. Cancelled runs stay RUNNING and resume on the next start.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        shuttingDown = true;
+        activeRuns.forEach(ProcessingRun::cancel);
+        partitionedRuns.values().forEach(ProcessingRun::cancel);
+    }
+
+    /**
+     * Starts an incremental run. Before claiming anything we hand back items whose claim has outlived the lease,
+     * so work abandoned by a crashed run is picked up again instead of staying IN_PROGRESS forever.
+     */
+    private ChunkSource claimCursor(long startAfter) {
+        return claimCursor(startAfter, properties::getChunkSize);
+    }
+
+    private ChunkSource claimCursor(long startAfter, IntSupplier chunkSize) {
+        Instant expiredBefore = Instant.now().minus(properties.getClaimLease());
+        transactionTemplate.executeWithoutResult(status -> itemRepository.releaseExpiredClaims(
+                expiredBefore, ItemStatus.PENDING, ItemStatus.IN_PROGRESS));
+        return new ItemClaimCursor(itemRepository, transactionTemplate, chunkSize, startAfter);
+    }
 
-        // This thread-safe list will hold all items that were successfully processed.
-        List<Item> successfullyProcessed = new CopyOnWriteArrayList<>();
+    /**
+     * One worker's loop: keep taking chunks from the source until there are none left or the run is cancelled.
+     * A failing chunk is logged and counted, and its items are recorded in processing_failure to be retried later
+     * (under runId, the durable run, which is another instance's when we're only helping with a partitioned run),
+     * so the rest of the run can carry on. If the chunk source or the chunk listener fails the exception propagates
+     * and fails the whole run.
+     * Chunks that didn't make it are handed back to the source, so claimed items don't stay stuck IN_PROGRESS.
+     * The workers claim one at a time (the claims lock), each chunk taking its pipeline ticket as it's claimed,
+     * so a key's items go through the stages in claim order even when the chunks are processed side by side.
+     */
+    private void drain(ChunkSource source, ReentrantLock claims, UUID runId, ProcessingRun run,
+                       Consumer<List<Item>> chunkListener) {
+        while (!run.isCancelled()) {
+            List<Long> ids;
+            ItemPipeline.Ticket ticket;
+            claims.lock();
+            try {
+                ids = source.next();
+                ticket = pipeline.reserve();
+            } finally {
+                claims.unlock();
+            }
+            if (ids.isEmpty()) {
+                ticket.close();
+                return;
+            }
+            List<Item> processed;
+            try (ticket) {
+                processed = processChunk(ids, ticket);
+            } catch (InterruptedException e) {
+                // Someone wants us to stop (usually a cancelled run) – the chunk was rolled back, so give it back.
+                // It isn't marked completed either, so the checkpoint stays before it and a resumed run redoes it.
+                source.release(ids);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                source.release(ids);
+                if (run.isCancelled()) {
+                    return;
+                }
+                run.recordFailed(ids.size());
+                metrics.recordFailed(ids.size());
+                log.warn("Failed to process chunk of {} items starting at ID {}", ids.size(), ids.get(0), e);
+                processingRuns.recordFailures(runId, ids, describe(e), Instant.now().plus(backoff(1)));
+                source.completed(ids);
+                continue;
+            }
+            source.completed(ids);
+            run.recordProcessed(processed.size());
+            // The listener runs outside the try on purpose: if whoever consumes the chunks goes away
+            // (e.g. a streaming client disconnects), the worker stops instead of carrying on blindly.
+            chunkListener.accept(processed);
+        }
+    }
+
+    /**
+     * Retries the run's failed items one at a time, so one bad item can't keep its whole chunk from going through.
+     * Every failed attempt doubles the item's backoff; an item that used up items.processing.retry.max-attempts
+     * is left in processing_failure with its last error. Between retries we sleep until the next one is due,
+     * and a cancelled run stops right away, leaving the remaining retries to a resumed run.
+     */
+    private void retryFailures(ProcessingRun run, Consumer<List<Item>> chunkListener) {
+        int maxAttempts = properties.getRetry().getMaxAttempts();
+        while (!run.isCancelled()) {
+            List<Long> due = processingRuns.findDueFailures(run.getId(), maxAttempts, Instant.now(),
+                    properties.getChunkSize());
+            try {
+                if (due.isEmpty()) {
+                    Optional<Instant> nextAttemptAt = processingRuns.findNextAttemptAt(run.getId(), maxAttempts);
+                    if (nextAttemptAt.isEmpty()) {
+                        return;
+                    }
+                    Duration wait = Duration.between(Instant.now(), nextAttemptAt.get());
+                    if (wait.isPositive()) {
+                        Thread.sleep(wait);
+                    }
+                    continue;
+                }
+                for (Long id : due) {
+                    if (run.isCancelled()) {
+                        return;
+                    }
+                    retry(run, id, maxAttempts, chunkListener);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void retry(ProcessingRun run, Long id, int maxAttempts, Consumer<List<Item>> chunkListener)
+            throws InterruptedException {
+        List<Item> processed;
+        try {
+            processed = processChunk(List.of(id));
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            int attempts = processingRuns.findAttempts(run.getId(), id) + 1;
+            processingRuns.recordRetryFailure(run.getId(), id, describe(e), Instant.now().plus(backoff(attempts)));
+            metrics.recordFailed(1);
+            if (attempts >= maxAttempts) {
+                log.warn("Giving up on item {} after {} attempts", id, attempts, e);
+            }
+            return;
+        }
+        processingRuns.deleteFailure(run.getId(), id);
+        run.recordRecovered(1, processed.size());
+        chunkListener.accept(processed);
+    }
+
+    /**
+     * The wait after the given number of failed attempts: initialBackoff, doubled for every further attempt,
+     * and never more than maxBackoff.
+     */
+    private Duration backoff(int failedAttempts) {
+        ItemProcessingProperties.RetrySettings retry = properties.getRetry();
+        Duration delay = retry.getInitialBackoff().multipliedBy(1L << Math.min(failedAttempts - 1, 30));
+        return delay.compareTo(retry.getMaxBackoff()) > 0 ? retry.getMaxBackoff() : delay;
+    }
+
+    private static String describe(Exception e) {
+        return e.getMessage() == null ? e.getClass().getName() : e.getClass().getName() + ": " + e.getMessage();
+    }
+
+    /**
+     * Processes and commits one chunk of IDs: runs the chunk through ItemChunkProcessor (which takes a DB permit
+     * for its database calls only), drops the stale cached copies and counts the outcome in the processing metrics.
+     * Every chunk of a chunked run goes through here, and so does the reactive processing endpoint.
+     * The chunk takes its place in the pipeline now; runs take theirs when claiming (see drain()).
+     */
+    public List<Item> processChunk(List<Long> ids) throws Exception {
+        try (ItemPipeline.Ticket ticket = pipeline.reserve()) {
+            return processChunk(ids, ticket);
+        }
+    }
+
+    private List<Item> processChunk(List<Long> ids, ItemPipeline.Ticket ticket) throws Exception {
+        List<Item> processed = itemChunkProcessor.process(ids, ticket);
+        // The chunk is committed at this point, so it's safe to drop the stale cached copies.
+        evictFromCache(ids);
+        metrics.recordProcessed(processed.size());
+        // IDs that no longer load were deleted after the chunk was handed out.
+        if (processed.size() < ids.size()) {
+            metrics.recordSkipped(ids.size() - processed.size());
+        }
+        return processed;
+    }
+
+    /**
+     * The original processing mode: fetch all IDs, then process each one in its own task
+     * with its own findById() and save().
+     */
+    private CompletableFuture<List<Item>> processItemsOneByOne() {
+        long start = System.nanoTime();
+
+        // This thread-safe queue will hold all items that were successfully processed.
+        // A CopyOnWriteArrayList would copy the whole array on every add, which is O(n²) over a run.
+        Queue<Item> successfullyProcessed = new ConcurrentLinkedQueue<>();
 
         // We start by fetching all the item IDs from the database to work with.
         List<Long> itemIds = itemRepository.findAllIds();
@@ -84,23 +751,30 @@ public class ItemService {
             CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
                 try {
                     // Try to find the item from the DB – if it doesn't exist, we skip it.
-                    Optional<Item> optionalItem = itemRepository.findById(id);
+                    Optional<Item> optionalItem = dbConcurrencyLimiter.call(() -> itemRepository.findById(id));
                     if (optionalItem.isPresent()) {
                         Item item = optionalItem.get();
 
-                        // Simulate some processing time (not ideal in real world, but ok for demo)
-                        Thread.sleep(100);
+                        // Simulate some processing time and mark the item as processed
+                        itemChunkProcessor.processItem(item);
 
-                        // Mark the item as processed and save it back to the DB
-                        item.setStatus("PROCESSED");
-                        itemRepository.save(item);
+                        // Save it back to the DB. We only hold a DB permit for the actual calls,
+                        // never across the simulated processing time.
+                        dbConcurrencyLimiter.call(() -> transactionTemplate.execute(
+                                status -> updateDetached(item, ItemChangeType.PROCESSED)));
+                        evictFromCache(List.of(id));
 
                         // Add it to our results list
                         successfullyProcessed.add(item);
+                        metrics.recordProcessed(1);
+                    } else {
+                        // Deleted since we listed the IDs – nothing to do.
+                        metrics.recordSkipped(1);
                     }
                 } catch (Exception e) {
-                    // If something goes wrong (e.g., DB issue), we log it to help debugging
-                    System.err.println("Failed to process item with ID " + id + ": " + e.getMessage());
+                    // If something goes wrong (e.g., DB issue), we count and log it to help debugging
+                    metrics.recordFailed(1);
+                    log.warn("Failed to process item with ID {}", id, e);
                 }
             }, executor);
 
@@ -111,8 +785,7 @@ public class ItemService {
         // This part makes sure we wait until ALL tasks are fullly completed.
         // Only after that we return the list of processed items.
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(voidResult -> successfullyProcessed);
+                .whenComplete((voidResult, error) -> metrics.recordRun(ProcessingMode.PER_ITEM, start))
+                .thenApply(voidResult -> new ArrayList<>(successfullyProcessed));
     }
 }
-
-
@@ -0,0 +1,12 @@
+package com.siemens.internship.service;
+
+/**
+ * Thrown when a processing job can't be admitted because the job queue is full.
+ * The controller turns this into a 429 Too Many Requests, so clients know to back off and retry.
+ */
+public class JobRejectedException extends RuntimeException {
+
+    public JobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,196 @@
+package com.siemens.internship.service;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingPartitionRepository;
+import com.siemens.internship.repository.ProcessingPartitionRepository.Partition;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The chunk source for PARTITIONED runs, which several instances work on together.
+ * Instead of walking the whole table it leases one partition of the run's ID range at a time and walks that,
+ * leasing the next free partition when it runs dry. Checkpoints work like CheckpointedChunkSource's, but per
+ * partition: whoever takes a partition over from us (because we died, or stopped renewing the lease) continues
+ * right after our last committed chunk.
+ * next() only comes back empty once every partition of the run is done, here or on another instance. Until then
+ * it waits for the partitions other instances hold, so if one of them dies, its partitions are picked up here
+ * as soon as their lease runs out.
+ */
+class PartitionedChunkSource implements ChunkSource {
+    private static final Logger log = LoggerFactory.getLogger(PartitionedChunkSource.class);
+
+    private final ProcessingPartitionRepository partitions;
+    private final ItemRepository itemRepository;
+    private final UUID runId;
+    private final ProcessingRun run;
+    private final String owner;
+    private final Duration lease;
+    private final Duration pollInterval;
+    private final int chunkSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Signalled when we finish a partition, so workers waiting for the rest of the run take another look.
+    private final Condition partitionFinished = lock.newCondition();
+    // The partitions we hold, by their first ID.
+    private final TreeMap<Long, LeasedPartition> leased = new TreeMap<>();
+    // The partition we're handing chunks out of; null when we need to lease the next one.
+    private LeasedPartition current;
+
+    private static class LeasedPartition {
+
+        private final Partition partition;
+        // Upper end of every chunk that's been handed out and isn't part of the checkpoint yet -> is it done?
+        private final TreeMap<Long, Boolean> outstanding = new TreeMap<>();
+        private long cursor;
+        private long checkpoint;
+        private boolean exhausted;
+
+        private LeasedPartition(Partition partition) {
+            this.partition = partition;
+            this.cursor = partition.checkpointId();
+            this.checkpoint = partition.checkpointId();
+        }
+    }
+
+    /**
+     * The run is the local one that gets cancelled; runId is the durable run we're working on with the other instances.
+     */
+    PartitionedChunkSource(ProcessingPartitionRepository partitions, ItemRepository itemRepository, UUID runId,
+                           ProcessingRun run, String owner, Duration lease, Duration pollInterval, int chunkSize) {
+        this.partitions = partitions;
+        this.itemRepository = itemRepository;
+        this.runId = runId;
+        this.run = run;
+        this.owner = owner;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Hands out the next chunk of the partition we're walking. While other instances still hold partitions
+     * (or our own last chunks are still being processed) we wait, at most pollInterval at a time, and look again.
+     */
+    @Override
+    public List<Long> next() {
+        lock.lock();
+        try {
+            while (!run.isCancelled()) {
+                List<Long> ids = nextFromLeased();
+                if (!ids.isEmpty() || partitions.countUnfinished(runId) == 0) {
+                    return ids;
+                }
+                partitionFinished.await(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The next chunk of the current partition, leasing new partitions as they run dry.
+     * Empty if there's no free partition left. Called under the lock.
+     */
+    private List<Long> nextFromLeased() {
+        while (true) {
+            if (current == null) {
+                Optional<Partition> claimed = partitions.claim(runId, owner, lease);
+                if (claimed.isEmpty()) {
+                    return List.of();
+                }
+                current = new LeasedPartition(claimed.get());
+                leased.put(claimed.get().firstId(), current);
+            }
+            List<Long> ids = itemRepository.findIdsBetween(current.cursor, current.partition.lastId(), Limit.of(chunkSize));
+            if (!ids.isEmpty()) {
+                current.cursor = ids.get(ids.size() - 1);
+                current.outstanding.put(current.cursor, Boolean.FALSE);
+                return ids;
+            }
+            current.exhausted = true;
+            finishIfDone(current);
+            current = null;
+        }
+    }
+
+    /**
+     * Moves the checkpoint of the chunk's partition on, and finishes the partition once its last chunk is done.
+     * Writing the checkpoint is also how we notice we lost the partition to another instance.
+     */
+    @Override
+    public void completed(List<Long> ids) {
+        lock.lock();
+        try {
+            Map.Entry<Long, LeasedPartition> entry = leased.floorEntry(ids.get(0));
+            if (entry == null || ids.get(0) > entry.getValue().partition.lastId()) {
+                // The chunk belongs to a partition we've lost since; its new owner redoes it from the checkpoint.
+                return;
+            }
+            LeasedPartition partition = entry.getValue();
+            partition.outstanding.put(ids.get(ids.size() - 1), Boolean.TRUE);
+            long before = partition.checkpoint;
+            Map.Entry<Long, Boolean> first;
+            while ((first = partition.outstanding.firstEntry()) != null && first.getValue()) {
+                partition.checkpoint = first.getKey();
+                partition.outstanding.pollFirstEntry();
+            }
+            if (!finishIfDone(partition) && partition.checkpoint != before
+                    && !partitions.saveCheckpoint(partition.partition, owner, partition.checkpoint)) {
+                lost(partition);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the partition as done if we've walked all of it and every chunk has completed. Called under the lock.
+     */
+    private boolean finishIfDone(LeasedPartition partition) {
+        if (!partition.exhausted || !partition.outstanding.isEmpty()) {
+            return false;
+        }
+        if (partitions.finish(partition.partition, owner)) {
+            leased.remove(partition.partition.firstId());
+        } else {
+            lost(partition);
+        }
+        partitionFinished.signalAll();
+        return true;
+    }
+
+    /**
+     * Our lease ran out and another instance took the partition over, so we stop working on it.
+     * Chunks of it that are still being processed here may be processed twice; that's safe, just wasted.
+     */
+    private void lost(LeasedPartition partition) {
+        log.warn("Lost partition {} of processing run {} to another instance", partition.partition.number(), runId);
+        leased.remove(partition.partition.firstId());
+        if (current == partition) {
+            current = null;
+        }
+    }
+
+    /**
+     * Hands back the partitions we still hold (the run was cancelled, or we're shutting down),
+     * so other instances can take them over without waiting for the leases to run out.
+     */
+    void close() {
+        partitions.releaseAll(runId, owner);
+    }
+}
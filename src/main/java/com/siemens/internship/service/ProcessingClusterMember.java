@@ -0,0 +1,96 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.config.ItemProcessingProperties.ClusterSettings;
+import com.siemens.internship.repository.ProcessingPartitionRepository;
+import com.siemens.internship.repository.ProcessingRunRepository;
+
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This instance's part in PARTITIONED processing (items.processing.cluster.*).
+ * Every heartbeatInterval it renews the leases on the runs and partitions it holds, takes over runs whose
+ * coordinator stopped renewing theirs, and joins every running partitioned run that has partitions nobody holds.
+ * That last part is what makes adding instances add throughput: a run started on any instance is worked on by all.
+ * Nothing happens unless the cluster is enabled.
+ */
+@Component
+public class ProcessingClusterMember {
+    private static final Logger log = LoggerFactory.getLogger(ProcessingClusterMember.class);
+
+    @Autowired
+    private ItemProcessingProperties properties;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ProcessingJobService jobService;
+
+    @Autowired
+    private ProcessingRunRepository processingRuns;
+
+    @Autowired
+    private ProcessingPartitionRepository partitions;
+
+    private ScheduledExecutorService heartbeats;
+
+    /**
+     * Starts the heartbeat once the application is up (and Flyway has created the tables).
+     * It gets a platform thread of its own, so a busy processing executor can't delay it past the lease.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        ClusterSettings cluster = properties.getCluster();
+        if (!cluster.isEnabled()) {
+            return;
+        }
+        heartbeats = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("processing-cluster-heartbeat").daemon().factory());
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, 0, cluster.getHeartbeatInterval().toMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("Joined the processing cluster as {}", cluster.getInstanceId());
+    }
+
+    /**
+     * One heartbeat. Failures are logged and the next heartbeat simply tries again: an exception escaping
+     * would cancel the schedule, and with it every lease we hold.
+     */
+    void heartbeat() {
+        ClusterSettings cluster = properties.getCluster();
+        try {
+            processingRuns.renewLeases(cluster.getInstanceId(), cluster.getLease());
+            partitions.renewLeases(cluster.getInstanceId(), cluster.getLease());
+            jobService.adoptOrphanedRuns();
+            for (UUID runId : partitions.findJoinable()) {
+                if (!itemService.isWorkingOn(runId)) {
+                    itemService.joinPartitionedRun(runId).whenComplete((count, error) -> {
+                        if (error != null) {
+                            log.warn("Failed to work on partitioned processing run {}", runId, error);
+                        }
+                    });
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Processing cluster heartbeat failed", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.repository.ProcessingRunRepository.InterruptedRun;
+
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * One processing run submitted through the job API.
+ * It wraps the ProcessingRun doing the actual work, and adds what clients want to know about it:
+ * where it is in its lifecycle, how many items it's expected to cover, and how fast it's going.
+ * The getters are what the job endpoints return as JSON.
+ */
+public class ProcessingJob {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    private final UUID id;
+    private final ProcessingMode mode;
+    private final ProcessingRun run;
+    private final InterruptedRun resumedFrom;
+    private final Instant createdAt = Instant.now();
+    private volatile State state = State.QUEUED;
+    private volatile long total;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    ProcessingJob(ProcessingMode mode) {
+        this(UUID.randomUUID(), mode, null);
+    }
+
+    /**
+     * A job that picks up a run interrupted by a crash or a shutdown. It keeps the run's ID.
+     */
+    ProcessingJob(InterruptedRun interrupted) {
+        this(interrupted.id(), interrupted.mode(), interrupted);
+    }
+
+    private ProcessingJob(UUID id, ProcessingMode mode, InterruptedRun resumedFrom) {
+        this.id = id;
+        this.mode = mode;
+        this.run = new ProcessingRun(id);
+        this.resumedFrom = resumedFrom;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public ProcessingMode getMode() {
+        return mode;
+    }
+
+    /**
+     * For a resumed job, the checkpoint it continued from: every item up to this ID was done before the restart.
+     * Null for a job that was started normally.
+     */
+    public Long getResumedAfter() {
+        return resumedFrom == null ? null : resumedFrom.checkpointId();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * How many items the job expected to process when it started (0 while it's still queued).
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public long getProcessed() {
+        return run.getProcessed();
+    }
+
+    public long getFailed() {
+        return run.getFailed();
+    }
+
+    /**
+     * Processed items per second since the job started, up to now or until it finished.
+     */
+    public double getThroughput() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return run.getProcessed() * 1000.0 / millis;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFinished() {
+        State current = state;
+        return current == State.COMPLETED || current == State.FAILED || current == State.CANCELLED;
+    }
+
+    ProcessingRun run() {
+        return run;
+    }
+
+    InterruptedRun resumedFrom() {
+        return resumedFrom;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * Moves the job from QUEUED to RUNNING. Returns false if it was cancelled while it was waiting,
+     * in which case it must not run at all.
+     */
+    synchronized boolean start(long total) {
+        if (state != State.QUEUED) {
+            return false;
+        }
+        this.total = total;
+        this.startedAt = Instant.now();
+        this.state = State.RUNNING;
+        return true;
+    }
+
+    /**
+     * Records how the run ended. A cancelled run counts as CANCELLED even if it completed normally.
+     */
+    synchronized void finish(Throwable failure) {
+        finishedAt = Instant.now();
+        if (run.isCancelled()) {
+            state = State.CANCELLED;
+        } else if (failure != null) {
+            state = State.FAILED;
+            error = failure.getMessage();
+        } else {
+            state = State.COMPLETED;
+        }
+    }
+
+    /**
+     * A queued job is cancelled on the spot and removed from the queue; a running one is asked to stop,
+     * and becomes CANCELLED once its in-flight chunks have been aborted. Finished jobs are left alone.
+     */
+    synchronized void cancel() {
+        if (state == State.QUEUED) {
+            state = State.CANCELLED;
+            finishedAt = Instant.now();
+            Future<?> queued = future;
+            if (queued != null) {
+                queued.cancel(false);
+            }
+        } else if (state == State.RUNNING) {
+            run.cancel();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.config.ItemProcessingProperties.ClusterSettings;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.config.ProcessingJobProperties;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingRunRepository;
+import com.siemens.internship.repository.ProcessingRunRepository.InterruptedRun;
+
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs item processing as jobs that clients can submit, watch and cancel,
+ * instead of holding an HTTP request open for the whole run.
+ * Jobs are admitted through a bounded queue: at most maxConcurrentJobs run at once,
+ * at most queueCapacity wait behind them, and anything beyond that is rejected right away
+ * rather than piling up threads and parallel runs over the same rows.
+ */
+@Service
+public class ProcessingJobService {
+    private static final Logger log = LoggerFactory.getLogger(ProcessingJobService.class);
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProcessingJobProperties properties;
+
+    @Autowired
+    private ItemProcessingProperties processingProperties;
+
+    @Autowired
+    private ProcessingRunRepository processingRuns;
+
+    private final Map<UUID, ProcessingJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor jobRunner;
+
+    /**
+     * A plain ThreadPoolExecutor with a bounded queue gives us admission control for free:
+     * once the threads are busy and the queue is full, execute() throws RejectedExecutionException.
+     * The job threads only coordinate; the chunks themselves run on the item processing executor.
+     */
+    @PostConstruct
+    void start() {
+        jobRunner = new ThreadPoolExecutor(properties.getMaxConcurrentJobs(), properties.getMaxConcurrentJobs(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofPlatform().name("processing-job-", 0).factory());
+    }
+
+    /**
+     * Queues a new job, or throws JobRejectedException if the queue is full.
+     */
+    public ProcessingJob submit(ProcessingMode mode) {
+        return enqueue(new ProcessingJob(mode));
+    }
+
+    /**
+     * Once the application is up, we resume whatever the last one left unfinished (see items.processing.resume-on-startup).
+     * In a cluster the RUNNING runs may well belong to instances that are still up, so there
+     * ProcessingClusterMember only takes over the ones whose lease has run out.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        if (processingProperties.isResumeOnStartup() && !processingProperties.getCluster().isEnabled()) {
+            resumeInterruptedRuns();
+        }
+    }
+
+    /**
+     * Picks up the runs that were still going when the application last stopped (crash or shutdown),
+     * each as a job of its own that continues from the run's checkpoint. A run this instance is already
+     * working on is left alone. If the queue can't take them all, the rest stay recorded for the next start.
+     */
+    public void resumeInterruptedRuns() {
+        for (InterruptedRun interrupted : processingRuns.findInterrupted()) {
+            if (jobs.containsKey(interrupted.id())) {
+                continue;
+            }
+            try {
+                enqueue(new ProcessingJob(interrupted));
+            } catch (JobRejectedException e) {
+                log.warn("Could not resume processing run {} yet: {}", interrupted.id(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * The cluster version of resumeInterruptedRuns(): picks up the runs whose coordinator stopped renewing its lease,
+     * each on exactly one instance (see ProcessingRunRepository.adopt()). A run we can't queue is handed back
+     * for another instance, or a later heartbeat, to take.
+     */
+    public void adoptOrphanedRuns() {
+        ClusterSettings cluster = processingProperties.getCluster();
+        for (InterruptedRun orphaned : processingRuns.findOrphaned()) {
+            if (jobs.containsKey(orphaned.id())
+                    || !processingRuns.adopt(orphaned.id(), cluster.getInstanceId(), cluster.getLease())) {
+                continue;
+            }
+            log.info("Taking over processing run {} from an instance that stopped", orphaned.id());
+            try {
+                enqueue(new ProcessingJob(orphaned));
+            } catch (JobRejectedException e) {
+                processingRuns.disown(orphaned.id(), cluster.getInstanceId());
+                log.warn("Could not take over processing run {} yet: {}", orphaned.id(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private ProcessingJob enqueue(ProcessingJob job) {
+        pruneFinishedJobs();
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(jobRunner.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new JobRejectedException("Too many processing jobs, at most " + properties.getMaxConcurrentJobs()
+                    + " running and " + properties.getQueueCapacity() + " queued. Please retry later.");
+        }
+        return job;
+    }
+
+    public Optional<ProcessingJob> find(UUID id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Cancels the job if we know it. Queued jobs are also dropped from the queue,
+     * so they free their slot immediately.
+     */
+    public Optional<ProcessingJob> cancel(UUID id) {
+        ProcessingJob job = jobs.get(id);
+        if (job != null) {
+            job.cancel();
+            jobRunner.purge();
+            // A resumed run that gets cancelled before it starts would otherwise be resumed again on the next start.
+            if (job.resumedFrom() != null && job.getStartedAt() == null && job.isFinished()) {
+                processingRuns.finishRun(job.getId(), ProcessingRunRepository.RunState.CANCELLED);
+            }
+        }
+        return Optional.ofNullable(job);
+    }
+
+    /**
+     * What a job thread does: start the run, wait for it, and record how it ended.
+     */
+    private void run(ProcessingJob job) {
+        ProcessingMode mode = job.getMode();
+        InterruptedRun resumedFrom = job.resumedFrom();
+        long total;
+        if (mode == ProcessingMode.INCREMENTAL) {
+            total = itemRepository.countByStatus(ItemStatus.PENDING);
+        } else if (resumedFrom != null) {
+            total = itemRepository.countByIdGreaterThan(resumedFrom.checkpointId());
+        } else {
+            total = itemRepository.count();
+        }
+        if (!job.start(total)) {
+            return;
+        }
+        try {
+            if (resumedFrom != null) {
+                itemService.resumeItemsInChunks(resumedFrom, job.run()).join();
+            } else {
+                itemService.processItemsInChunks(mode, job.run(), chunk -> { }).join();
+            }
+            job.finish(null);
+        } catch (CompletionException e) {
+            job.finish(e.getCause());
+        } catch (RuntimeException e) {
+            job.finish(e);
+        }
+    }
+
+    /**
+     * Keeps the job registry bounded by forgetting the oldest finished jobs first.
+     */
+    private void pruneFinishedJobs() {
+        int excess = jobs.size() - properties.getRetainedJobs() + 1;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(ProcessingJob::isFinished)
+                .sorted(Comparator.comparing(ProcessingJob::getCreatedAt))
+                .limit(excess)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    /**
+     * On shutdown we cancel everything and wait briefly for the running jobs to wind down.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        jobs.values().forEach(ProcessingJob::cancel);
+        jobRunner.shutdownNow();
+        jobRunner.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,75 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The meters for item processing, shown on /actuator/metrics and /actuator/prometheus.
+ * All meters are registered once up front and kept in fields, so the hot path only bumps a counter
+ * or records a duration – there's no registry lookup or tag building per item.
+ */
+@Component
+public class ProcessingMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<ProcessingMode, Timer> runTimers = new EnumMap<>(ProcessingMode.class);
+    private final Counter processed;
+    private final Counter failed;
+    private final Counter skipped;
+
+    public ProcessingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (ProcessingMode mode : ProcessingMode.values()) {
+            runTimers.put(mode, Timer.builder("items.processing.run")
+                    .description("Duration of a whole processing run")
+                    .tag("mode", mode.name().toLowerCase())
+                    .register(registry));
+        }
+        processed = itemCounter(registry, "processed");
+        failed = itemCounter(registry, "failed");
+        // Items that were gone (deleted) by the time their chunk or task got to them.
+        skipped = itemCounter(registry, "skipped");
+    }
+
+    private static Counter itemCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("items.processing.items")
+                .description("Items handled by processing runs, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * The per-item timer of one pipeline stage. The pipeline asks for it once per stage and records into it directly.
+     */
+    Timer itemTimer(String stage) {
+        return Timer.builder("items.processing.item")
+                .description("Time one pipeline stage spends on a single item")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    void recordRun(ProcessingMode mode, long startNanos) {
+        runTimers.get(mode).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordProcessed(int count) {
+        processed.increment(count);
+    }
+
+    void recordFailed(int count) {
+        failed.increment(count);
+    }
+
+    void recordSkipped(int count) {
+        skipped.increment(count);
+    }
+}
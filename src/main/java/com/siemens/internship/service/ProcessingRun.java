@@ -0,0 +1,89 @@
+package com.siemens.internship.service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The live state of one chunked processing run: how far it got, and whether someone asked it to stop.
+ * The workers update the counters as chunks complete, so callers (like the job API) can report progress
+ * while the run is still going.
+ */
+public class ProcessingRun {
+
+    private final UUID id;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Set<Thread> workers = new HashSet<>();
+    private volatile boolean cancelled;
+
+    public ProcessingRun() {
+        this(UUID.randomUUID());
+    }
+
+    /**
+     * The ID is also the key of the run's durable record (processing_run), so a resumed run keeps it.
+     */
+    public ProcessingRun(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the run: no worker takes another chunk, and the workers that are busy right now are interrupted,
+     * which aborts (and rolls back) the chunk they're in the middle of.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        workers.forEach(Thread::interrupt);
+    }
+
+    void recordProcessed(int count) {
+        processed.addAndGet(count);
+    }
+
+    void recordFailed(int count) {
+        failed.addAndGet(count);
+    }
+
+    /**
+     * Items that failed earlier in the run and went through on a retry move from failed to processed
+     * (an item deleted in the meantime is no longer failed, but wasn't processed either).
+     */
+    void recordRecovered(int failedItems, int processedItems) {
+        failed.addAndGet(-failedItems);
+        processed.addAndGet(processedItems);
+    }
+
+    /**
+     * Workers register themselves for the duration of the run, so cancel() knows whom to interrupt.
+     */
+    synchronized void register(Thread worker) {
+        workers.add(worker);
+    }
+
+    /**
+     * Once a worker is unregistered it can't be interrupted by this run any more.
+     * We also clear a pending interrupt, so a pooled thread doesn't carry it over into its next task.
+     */
+    synchronized void unregister(Thread worker) {
+        workers.remove(worker);
+        Thread.interrupted();
+    }
+}
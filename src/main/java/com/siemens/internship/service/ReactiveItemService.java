@@ -0,0 +1,93 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.config.ProcessingExecutorConfig;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ReactiveItemRepository;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The reactive read path: listing, lookups and processing as Flux/Mono, for the reactive routes.
+ * Reads go through ReactiveItemRepository. Processing reuses the normal chunk processing (ItemService.processChunk),
+ * which is JPA and therefore blocking, so the chunks run on the item processing executor.
+ * Only there with items.reactive.enabled=true.
+ */
+@Service
+@ConditionalOnProperty(prefix = "items.reactive", name = "enabled", havingValue = "true")
+public class ReactiveItemService {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveItemService.class);
+
+    private final ReactiveItemRepository repository;
+    private final ItemService itemService;
+    private final ItemProcessingProperties properties;
+    private final ProcessingMetrics metrics;
+    private final Scheduler processingScheduler;
+
+    public ReactiveItemService(ReactiveItemRepository repository, ItemService itemService,
+                               ItemProcessingProperties properties, ProcessingMetrics metrics,
+                               @Qualifier(ProcessingExecutorConfig.ITEM_PROCESSING_EXECUTOR) ExecutorService executor) {
+        this.repository = repository;
+        this.itemService = itemService;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.processingScheduler = Schedulers.fromExecutorService(executor, ProcessingExecutorConfig.ITEM_PROCESSING_EXECUTOR);
+    }
+
+    public Flux<Item> findPage(long after, int size) {
+        return repository.findPage(after, size);
+    }
+
+    /**
+     * Looks the item up in the database. Unlike ItemService.findById this skips the item cache:
+     * the cache is filled by the servlet path, and a blocking cache loader has no place on this one.
+     */
+    public Mono<Item> findById(long id) {
+        return repository.findById(id);
+    }
+
+    /**
+     * Processes every item, chunk by chunk, and emits the processed items as their chunks commit.
+     * This is demand driven: IDs are read and chunks started only as fast as the subscriber takes the results,
+     * and never more than items.processing.max-in-flight-chunks at a time. A slow client therefore slows the run
+     * down instead of piling processed items up in memory, and a client that goes away cancels it; the chunks
+     * that were still running get interrupted and rolled back.
+     * Like the chunked runs, a failing chunk is logged, counted and skipped.
+     * It is a plain walk over all IDs, not a processing run: it ignores items.processing.mode, records no run
+     * in processing_run, keeps no checkpoint and doesn't retry failed items, and a restart doesn't resume it.
+     * All of that comes from the run's durable bookkeeping driving the chunks, which can't follow the client's demand.
+     * Use the job API (or GET /api/items/process on the servlet port) for work that has to be tracked and resumed.
+     */
+    public Flux<Item> processItems() {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return repository.findAllIds()
+                    .buffer(properties.getChunkSize())
+                    .flatMap(this::processChunk, properties.getMaxInFlightChunks())
+                    .flatMapIterable(processed -> processed)
+                    .doFinally(signal -> metrics.recordRun(ProcessingMode.CHUNKED, start));
+        });
+    }
+
+    private Mono<List<Item>> processChunk(List<Long> ids) {
+        return Mono.fromCallable(() -> itemService.processChunk(ids))
+                .subscribeOn(processingScheduler)
+                .onErrorResume(e -> {
+                    metrics.recordFailed(ids.size());
+                    log.warn("Failed to process chunk of {} items starting at ID {}", ids.size(), ids.get(0), e);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,166 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemRateLimitProperties;
+import com.siemens.internship.config.ItemRateLimitProperties.Budget;
+
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Decides whether an API request may run: the client's own token bucket, the global one, and the adaptive
+ * concurrency limit, in that order. The per-client check comes first so a client that is over its own budget
+ * is turned away without using up tokens everybody shares.
+ * Nothing here takes a lock: the buckets and the limiter are compare-and-set based, and the per-client buckets
+ * live in a Caffeine cache (lock-free reads, striped writes) that forgets clients that have gone quiet.
+ */
+@Component
+public class RequestAdmission {
+
+    /**
+     * Which budget a request is charged to.
+     */
+    public enum Cost {
+        CHEAP,
+        EXPENSIVE
+    }
+
+    public enum Outcome {
+        ADMITTED,
+        CLIENT_RATE_LIMITED,
+        GLOBAL_RATE_LIMITED,
+        OVERLOADED
+    }
+
+    /**
+     * The verdict, and for a rejection how long the client should wait before trying again.
+     */
+    public record Decision(Outcome outcome, Duration retryAfter) {
+
+        static final Decision ADMITTED = new Decision(Outcome.ADMITTED, Duration.ZERO);
+
+        public boolean admitted() {
+            return outcome == Outcome.ADMITTED;
+        }
+    }
+
+    private static final Duration OVERLOADED_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ItemRateLimitProperties properties;
+    private final Map<Cost, Cache<String, TokenBucket>> clientBuckets = new EnumMap<>(Cost.class);
+    private final Map<Cost, TokenBucket> globalBuckets = new EnumMap<>(Cost.class);
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final HikariDataSource hikari;
+    private final Map<Outcome, Counter> rejected = new EnumMap<>(Outcome.class);
+
+    public RequestAdmission(ItemRateLimitProperties properties, DataSource dataSource, MeterRegistry registry)
+            throws SQLException {
+        this.properties = properties;
+        for (Cost cost : Cost.values()) {
+            clientBuckets.put(cost, Caffeine.newBuilder()
+                    .expireAfterAccess(Duration.ofMinutes(5))
+                    .maximumSize(100_000)
+                    .build());
+            globalBuckets.put(cost, bucket(budgets(cost).getGlobal()));
+        }
+        ItemRateLimitProperties.ConcurrencySettings concurrency = properties.getConcurrency();
+        this.limiter = new AdaptiveConcurrencyLimiter(concurrency.getInitialLimit(), concurrency.getMinLimit(),
+                concurrency.getMaxLimit(), concurrency.getLatencyThreshold().toNanos());
+        this.hikari = dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+
+        for (Outcome outcome : Outcome.values()) {
+            if (outcome != Outcome.ADMITTED) {
+                rejected.put(outcome, Counter.builder("items.requests.rejected")
+                        .description("API requests turned away by rate limiting or load shedding")
+                        .tag("reason", outcome.name().toLowerCase())
+                        .register(registry));
+            }
+        }
+        Gauge.builder("items.requests.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on API requests in flight")
+                .register(registry);
+        Gauge.builder("items.requests.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("API requests currently in flight")
+                .register(registry);
+    }
+
+    /**
+     * Checks every limit for one request. An admitted request holds a concurrency slot until
+     * it is handed to one of the release() methods.
+     */
+    public Decision admit(String client, Cost cost) {
+        TokenBucket own = clientBuckets.get(cost).get(client, key -> bucket(budgets(cost).getPerClient()));
+        if (!own.tryAcquire()) {
+            return reject(Outcome.CLIENT_RATE_LIMITED, Duration.ofNanos(own.nanosUntilAvailable()));
+        }
+        TokenBucket global = globalBuckets.get(cost);
+        if (!global.tryAcquire()) {
+            return reject(Outcome.GLOBAL_RATE_LIMITED, Duration.ofNanos(global.nanosUntilAvailable()));
+        }
+        // Cheap requests mostly come from the cache, so only expensive ones are kept away from a busy pool.
+        if (cost == Cost.EXPENSIVE && poolWaiters() > properties.getConcurrency().getMaxPoolWaiters()) {
+            return reject(Outcome.OVERLOADED, OVERLOADED_RETRY_AFTER);
+        }
+        if (!limiter.tryAcquire()) {
+            return reject(Outcome.OVERLOADED, OVERLOADED_RETRY_AFTER);
+        }
+        return Decision.ADMITTED;
+    }
+
+    /**
+     * Ends an admitted request. Only cheap requests feed their latency to the limiter: expensive ones are slow
+     * by nature (a processing run takes as long as it takes), while a lookup getting slow is a sign of overload.
+     */
+    public void release(Cost cost, long latencyNanos) {
+        if (cost == Cost.CHEAP) {
+            limiter.release(latencyNanos);
+        } else {
+            limiter.release();
+        }
+    }
+
+    /**
+     * Ends an admitted request without a latency sample, e.g. one that went asynchronous and is still running.
+     */
+    public void release() {
+        limiter.release();
+    }
+
+    /**
+     * Whether the API has its hands full: requests in flight reach the given share of the adaptive limit,
+     * or requests are waiting for a database connection. Background work checks this to stay out of the way.
+     */
+    public boolean isBusy(double inFlightRatio) {
+        return limiter.getInFlight() >= limiter.getLimit() * inFlightRatio || poolWaiters() > 0;
+    }
+
+    private Decision reject(Outcome outcome, Duration retryAfter) {
+        rejected.get(outcome).increment();
+        return new Decision(outcome, retryAfter);
+    }
+
+    private ItemRateLimitProperties.Budgets budgets(Cost cost) {
+        return cost == Cost.CHEAP ? properties.getCheap() : properties.getExpensive();
+    }
+
+    private static TokenBucket bucket(Budget budget) {
+        return new TokenBucket(budget.getRate(), budget.getBurst());
+    }
+
+    private int poolWaiters() {
+        // The pool MBean only exists once Hikari has started the pool.
+        HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+}
@@ -0,0 +1,30 @@
+package com.siemens.internship.service;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.Item;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * The built-in stage: the simulated per-item work that processing has always done
+ * (it used to be a Thread.sleep() hard-coded in the processing loop).
+ */
+@Component
+@Order(0)
+public class SimulatedWorkProcessor implements ItemProcessor {
+
+    @Autowired
+    private ItemProcessingProperties properties;
+
+    @Override
+    public String name() {
+        return "simulated-work";
+    }
+
+    @Override
+    public void process(Item item) throws InterruptedException {
+        Thread.sleep(properties.getItemDelay().toMillis());
+    }
+}
@@ -0,0 +1,51 @@
+package com.siemens.internship.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket, so checking a limit on every request never makes threads queue behind each other.
+ * Instead of a token count and a refill timestamp (two values that would have to change together) it keeps a single
+ * one, in the style of the generic cell rate algorithm: the time at which the bucket would be full again.
+ * Taking a token pushes that time one refill interval further; the request is refused if it would end up more than
+ * a full bucket's worth of intervals ahead of now. That's one compare-and-set per request.
+ */
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double tokensPerSecond, int capacity) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("A token bucket needs a positive rate and a capacity of at least 1");
+        }
+        this.nanosPerToken = Math.max(1L, Math.round(1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    boolean tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            if (next - now > capacityNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * How long until the next token is available, 0 if one is available right now.
+     */
+    public long nanosUntilAvailable() {
+        long now = System.nanoTime();
+        return Math.max(0L, fullAt.get() + nanosPerToken - now - capacityNanos);
+    }
+}
@@ -0,0 +1,22 @@
+-- The item table as the Item entity maps it. From here on the schema changes through migrations,
+-- Hibernate only validates it (spring.jpa.hibernate.ddl-auto=validate).
+
+-- Pooled IDs: Hibernate reserves 100 values per call, matching @SequenceGenerator(allocationSize = 100).
+CREATE SEQUENCE item_seq START WITH 1 INCREMENT BY 100;
+
+CREATE TABLE item (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    status      VARCHAR(20),
+    email       VARCHAR(255) NOT NULL,
+    claim_token VARCHAR(36),
+    claimed_at  TIMESTAMP(6) WITH TIME ZONE,
+    version     BIGINT
+);
+
+-- "Next pending items after the cursor" is an index seek on (status, id) instead of a table scan.
+CREATE INDEX idx_item_status_id ON item (status, id);
+
+-- Lookups and per-key processing by email.
+CREATE INDEX idx_item_email ON item (email);
@@ -0,0 +1,6 @@
+-- H2's built-in full-text search over name and description.
+-- FT_CREATE_INDEX indexes the existing rows and installs a trigger on the table,
+-- so inserts, updates and deletes keep the word index in sync in the same transaction.
+CREATE ALIAS IF NOT EXISTS FT_INIT FOR "org.h2.fulltext.FullText.init";
+CALL FT_INIT();
+CALL FT_CREATE_INDEX('PUBLIC', 'ITEM', 'NAME,DESCRIPTION');
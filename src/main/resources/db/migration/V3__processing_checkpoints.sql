@@ -0,0 +1,27 @@
+-- Durable bookkeeping for chunked processing runs, so a run interrupted by a crash or shutdown
+-- can be resumed from where it stopped instead of starting over.
+
+-- One row per run. checkpoint_id is the highest item ID below which every chunk has been committed
+-- (or recorded as failed); a resumed run continues right after it.
+CREATE TABLE processing_run (
+    id            UUID                        NOT NULL PRIMARY KEY,
+    mode          VARCHAR(20)                 NOT NULL,
+    state         VARCHAR(20)                 NOT NULL,
+    checkpoint_id BIGINT                      NOT NULL,
+    started_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- Interrupted runs are looked up by state at startup.
+CREATE INDEX idx_processing_run_state ON processing_run (state);
+
+-- Items whose processing failed in a run, with the last error and how often we tried.
+-- Retries are due at next_attempt_at; rows that ran out of attempts stay here for inspection.
+CREATE TABLE processing_failure (
+    run_id          UUID                        NOT NULL,
+    item_id         BIGINT                      NOT NULL,
+    reason          VARCHAR(1000),
+    attempts        INT                         NOT NULL,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (run_id, item_id)
+);
@@ -0,0 +1,14 @@
+-- Transactional outbox for Item: every create, update, delete and processing of an item adds a row here,
+-- in the same transaction as the change itself. GET /api/items/changes reads it as an incremental feed,
+-- so consumers only pay for what changed since their last sequence number instead of re-reading the table.
+
+-- Sequence numbers are allocated by the application (ItemChangeLog), a whole chunk at a time,
+-- so it knows which ones belong to transactions that haven't committed yet.
+CREATE SEQUENCE item_change_seq;
+
+CREATE TABLE item_change (
+    seq         BIGINT                      NOT NULL PRIMARY KEY,
+    item_id     BIGINT                      NOT NULL,
+    change_type VARCHAR(20)                 NOT NULL,
+    changed_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,3 @@
+-- ItemChangeLog hands out change sequence numbers from blocks of 50, so a single-item change
+-- doesn't need its own round trip to the sequence. Each NEXT VALUE reserves the next block.
+ALTER SEQUENCE item_change_seq INCREMENT BY 50;
@@ -0,0 +1,29 @@
+-- Bookkeeping for PARTITIONED runs, which several application instances work on together.
+-- Who works on what is decided by leases: a lease is held by an instance (owner) until lease_until,
+-- and renewed by that instance's heartbeat. Once it has run out, any other instance may take the work over.
+
+-- The instance coordinating a run holds it under a lease, so a run whose coordinator died is taken over.
+-- active_partitioned is TRUE while a PARTITIONED run is RUNNING and NULL otherwise: its unique constraint
+-- is what keeps two instances from starting separate partitioned runs over the same rows.
+ALTER TABLE processing_run ADD COLUMN owner VARCHAR(100);
+ALTER TABLE processing_run ADD COLUMN lease_until TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE processing_run ADD COLUMN active_partitioned BOOLEAN;
+ALTER TABLE processing_run ADD CONSTRAINT uk_processing_run_active_partitioned UNIQUE (active_partitioned);
+
+-- A run's ID range, split into partitions of consecutive IDs (the last one is open-ended).
+-- checkpoint_id works like the run's: every chunk up to it has been committed, so whoever takes the
+-- partition over continues right after it. Once DONE, owner is the instance that finished it.
+CREATE TABLE processing_partition (
+    run_id        UUID                        NOT NULL,
+    partition_no  INT                         NOT NULL,
+    first_id      BIGINT                      NOT NULL,
+    last_id       BIGINT                      NOT NULL,
+    checkpoint_id BIGINT                      NOT NULL,
+    state         VARCHAR(20)                 NOT NULL,
+    owner         VARCHAR(100),
+    lease_until   TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (run_id, partition_no)
+);
+
+-- Heartbeats renew every lease of one instance at once.
+CREATE INDEX idx_processing_partition_owner ON processing_partition (owner);
@@ -0,0 +1,6 @@
+-- version came in nullable (V1), and rows written outside Hibernate could leave it NULL.
+-- An optimistic lock can't compare against NULL, and the code bumping it on update can't add to it,
+-- so such rows start out at version 0, which is also what every new row gets from now on.
+UPDATE item SET version = 0 WHERE version IS NULL;
+ALTER TABLE item ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE item ALTER COLUMN version SET NOT NULL;
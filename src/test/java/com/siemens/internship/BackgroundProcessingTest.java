@@ -0,0 +1,131 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.AdaptiveBatchSizer;
+import com.siemens.internship.service.RequestAdmission;
+import com.siemens.internship.service.RequestAdmission.Cost;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the background processor. It processes every pending item in its database, so this class gets
+ * a database of its own instead of the shared testdb, and its context is closed when the class is done.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:background;DB_CLOSE_DELAY=-1",
+        "items.processing.background.enabled=true",
+        "items.processing.background.min-batch-size=2",
+        "items.processing.background.idle-interval=100ms",
+        "items.processing.background.pause-interval=50ms",
+        "items.processing.chunk-size=5",
+        "items.processing.item-delay=0ms"
+})
+@DirtiesContext
+public class BackgroundProcessingTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private RequestAdmission admission;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> seed(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(itemRepository.save(new Item("Background " + i, "d", ItemStatus.PENDING, "bg" + i + "@example.com"))
+                    .getId());
+        }
+        return ids;
+    }
+
+    private void awaitProcessed(List<Long> ids) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (itemRepository.findAllById(ids).stream().anyMatch(item -> item.getStatus() != ItemStatus.PROCESSED)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Background processing never got to the items");
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Pending items get processed without anyone starting a run, in recorded INCREMENTAL runs.
+     */
+    @Test
+    public void testPendingItemsAreProcessedInTheBackground() throws Exception {
+        List<Long> ids = seed(30);
+
+        awaitProcessed(ids);
+
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM processing_run WHERE mode = 'INCREMENTAL'",
+                Integer.class) >= 1);
+    }
+
+    /**
+     * While the API has half its request limit in flight, nothing is claimed; once it calms down, processing resumes.
+     */
+    @Test
+    public void testProcessingPausesWhileApiIsBusy() throws Exception {
+        List<Long> ids;
+        int held = 0;
+        try {
+            while (!admission.isBusy(0.5)) {
+                assertTrue(admission.admit("background-test", Cost.CHEAP).admitted());
+                held++;
+            }
+            ids = seed(10);
+            Thread.sleep(1000);
+            assertTrue(itemRepository.findAllById(ids).stream().allMatch(item -> item.getStatus() == ItemStatus.PENDING));
+        } finally {
+            for (int i = 0; i < held; i++) {
+                admission.release();
+            }
+        }
+        awaitProcessed(ids);
+    }
+
+    /**
+     * Quick claims with nobody waiting grow the batch and the concurrency up to their bounds;
+     * a slow claim or a queue cuts both by a quarter, never below the minimum.
+     */
+    @Test
+    public void testSizerGrowsAdditivelyAndBacksOffMultiplicatively() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 10, 200, 10, 4, 8, 1_000_000);
+
+        sizer.onClaimed(100, 100, 1_000, 0, 4);
+        assertEquals(110, sizer.getBatchSize());
+        sizer.onClaimed(110, 50, 1_000, 0, 4);
+        assertEquals(110, sizer.getBatchSize(), "A short batch means nothing is left, not room to grow");
+
+        sizer.onClaimed(110, 110, 5_000_000, 0, 4);
+        assertEquals(82, sizer.getBatchSize());
+        assertEquals(3, sizer.getConcurrency());
+        sizer.onClaimed(82, 82, 1_000, 2, 3);
+        assertEquals(61, sizer.getBatchSize());
+
+        for (int i = 0; i < 200; i++) {
+            sizer.onClaimed(sizer.getBatchSize(), sizer.getBatchSize(), 1_000, 0, sizer.getConcurrency());
+        }
+        assertEquals(200, sizer.getBatchSize());
+        assertEquals(8, sizer.getConcurrency());
+
+        for (int i = 0; i < 50; i++) {
+            sizer.onClaimed(200, 200, 5_000_000, 0, 8);
+            sizer.onPaused();
+        }
+        assertEquals(10, sizer.getBatchSize());
+        assertEquals(1, sizer.getConcurrency());
+    }
+}
@@ -0,0 +1,121 @@
+
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the bulk endpoints under /api/items/batch.
+ * Besides the happy paths we make sure a single bad element rejects the whole request
+ * and is reported with its index, so clients can fix exactly that row.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ItemBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Item item(String name, String email) {
+        return new Item(name, "Batch item", ItemStatus.PENDING, email);
+    }
+
+    private List<Item> createBatch(List<Item> items) throws Exception {
+        String response = mockMvc.perform(post("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, new TypeReference<>() { });
+    }
+
+    /**
+     * A valid batch is saved as a whole and every item comes back with its new ID.
+     */
+    @Test
+    public void testCreateBatch() throws Exception {
+        List<Item> saved = createBatch(List.of(item("Bulk 1", "bulk1@example.com"), item("Bulk 2", "bulk2@example.com")));
+
+        assertEquals(2, saved.size());
+        assertTrue(saved.stream().allMatch(item -> item.getId() != null));
+    }
+
+    /**
+     * The second element has a broken email: we expect a 400 that names index 1 and the email field.
+     */
+    @Test
+    public void testCreateBatchReportsInvalidElement() throws Exception {
+        List<Item> items = List.of(item("Good", "good@example.com"), item("Bad", "not-an-email"));
+
+        mockMvc.perform(post("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.length()").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].field").value("email"))
+                .andExpect(jsonPath("$.errors[0].message").value("Email must be valid"));
+    }
+
+    /**
+     * PATCH only touches the fields that are sent: the name changes, the email stays.
+     * Unknown IDs are reported per element.
+     */
+    @Test
+    public void testPatchBatch() throws Exception {
+        Item saved = createBatch(List.of(item("Before", "patch@example.com"))).get(0);
+
+        Item change = new Item();
+        change.setId(saved.getId());
+        change.setName("After");
+
+        mockMvc.perform(patch("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(change))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("After"))
+                .andExpect(jsonPath("$[0].email").value("patch@example.com"));
+
+        change.setId(987654321L);
+        mockMvc.perform(patch("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(change))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].message").value("Item not found"));
+    }
+
+    /**
+     * Deleting by ID list removes every listed item; afterwards they are gone.
+     */
+    @Test
+    public void testDeleteBatch() throws Exception {
+        List<Item> saved = createBatch(List.of(item("Delete 1", "del1@example.com"), item("Delete 2", "del2@example.com")));
+        List<Long> ids = saved.stream().map(Item::getId).toList();
+
+        mockMvc.perform(delete("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/items/" + ids.get(0)))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,69 @@
+
+package com.siemens.internship;
+import com.siemens.internship.config.CacheConfig;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.ItemService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * These tests cover the read-through cache in front of ItemService.findById().
+ * We check the cache contents directly, so we know for sure whether a lookup would hit the database.
+ */
+@SpringBootTest(properties = "items.processing.item-delay=0ms")
+public class ItemCacheTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Object cached(Long id) {
+        var wrapper = cacheManager.getCache(CacheConfig.ITEMS_CACHE).get(id);
+        return wrapper == null ? null : wrapper.get();
+    }
+
+    /**
+     * A lookup fills the cache, saving refreshes it and deleting removes the entry again.
+     */
+    @Test
+    public void testCacheFollowsSaveAndDelete() {
+        Item saved = itemService.save(new Item("Cached", "Desc", ItemStatus.PENDING, "cached@example.com"));
+        itemService.findById(saved.getId());
+        assertNotNull(cached(saved.getId()));
+
+        saved.setName("Renamed");
+        itemService.save(saved);
+        assertEquals("Renamed", ((Item) cached(saved.getId())).getName());
+
+        itemService.deleteById(saved.getId());
+        assertNull(cached(saved.getId()));
+        assertTrue(itemService.findById(saved.getId()).isEmpty());
+    }
+
+    /**
+     * After a processing run the cached entries must be gone, so the next lookup sees PROCESSED
+     * instead of the PENDING copy we cached before the run.
+     */
+    @Test
+    public void testProcessingInvalidatesCachedItems() {
+        Item saved = itemRepository.save(new Item("Stale", "Desc", ItemStatus.PENDING, "stale@example.com"));
+        assertEquals(ItemStatus.PENDING, itemService.findById(saved.getId()).orElseThrow().getStatus());
+
+        itemService.processItemsInChunks(chunk -> { }).join();
+
+        assertNull(cached(saved.getId()));
+        assertEquals(ItemStatus.PROCESSED, itemService.findById(saved.getId()).orElseThrow().getStatus());
+    }
+}
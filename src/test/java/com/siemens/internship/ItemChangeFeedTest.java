@@ -0,0 +1,209 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChange;
+import com.siemens.internship.model.ItemChangeType;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.service.ItemChangeLog;
+import com.siemens.internship.service.ItemService;
+
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the item_change outbox and GET /api/items/changes.
+ */
+@SpringBootTest(properties = "items.processing.item-delay=0ms")
+@AutoConfigureMockMvc
+public class ItemChangeFeedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemChangeLog changeLog;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long currentCursor() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM item_change", Long.class);
+    }
+
+    private MvcResult changes(long since, long wait) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/items/changes")
+                        .param("since", String.valueOf(since))
+                        .param("size", "1000")
+                        .param("wait", String.valueOf(wait)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    /**
+     * "itemId:TYPE" for every change of the given items, in feed order.
+     */
+    private List<String> changesOf(MvcResult result, Item... items) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (Item item : items) {
+            ids.add(item.getId());
+        }
+        List<String> found = new ArrayList<>();
+        long previousSeq = 0;
+        for (JsonNode change : objectMapper.readTree(result.getResponse().getContentAsString())) {
+            assertTrue(change.get("seq").asLong() > previousSeq, "changes come in sequence order");
+            previousSeq = change.get("seq").asLong();
+            if (ids.contains(change.get("itemId").asLong())) {
+                found.add(change.get("itemId").asLong() + ":" + change.get("type").asText());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Every kind of write lands in the feed, in order, and the cursor from one answer picks up right after it.
+     */
+    @Test
+    public void testFeedRecordsEveryMutation() throws Exception {
+        long since = currentCursor();
+
+        Item created = itemService.save(new Item("Feed", "d", ItemStatus.PENDING, "feed@changes.test"));
+        Item changes = new Item();
+        changes.setDescription("patched");
+        assertTrue(itemService.patch(created.getId(), changes, null));
+        itemService.processChunk(List.of(created.getId()));
+        Item deleted = itemService.createAll(List.of(new Item("FeedGone", "d", ItemStatus.PENDING, "gone@changes.test"))).get(0);
+        itemService.deleteAllById(List.of(deleted.getId()));
+
+        MvcResult result = changes(since, 0);
+        assertEquals(List.of(
+                created.getId() + ":" + ItemChangeType.CREATED,
+                created.getId() + ":" + ItemChangeType.UPDATED,
+                created.getId() + ":" + ItemChangeType.PROCESSED,
+                deleted.getId() + ":" + ItemChangeType.CREATED,
+                deleted.getId() + ":" + ItemChangeType.DELETED), changesOf(result, created, deleted));
+
+        long next = Long.parseLong(result.getResponse().getHeader("X-Next-Cursor"));
+        assertTrue(changesOf(changes(next, 0), created, deleted).isEmpty());
+    }
+
+    /**
+     * A rolled back transaction leaves nothing in the feed, and doesn't hold back what commits after it.
+     */
+    @Test
+    public void testRolledBackChangesAreNotPublished() throws Exception {
+        long since = currentCursor();
+        Item item = itemService.save(new Item("Rollback", "d", ItemStatus.PENDING, "rollback@changes.test"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            changeLog.record(ItemChangeType.UPDATED, item.getId());
+            status.setRollbackOnly();
+        });
+        itemService.deleteById(item.getId());
+
+        assertEquals(List.of(
+                item.getId() + ":" + ItemChangeType.CREATED,
+                item.getId() + ":" + ItemChangeType.DELETED), changesOf(changes(since, 0), item));
+    }
+
+    /**
+     * A long-polling request that starts with nothing new answers as soon as a change commits.
+     */
+    @Test
+    public void testLongPollWakesUpOnCommit() throws Exception {
+        long since = currentCursor();
+        MvcResult started = mockMvc.perform(get("/api/items/changes")
+                        .param("since", String.valueOf(since))
+                        .param("wait", "20"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long start = System.nanoTime();
+        Item item = CompletableFuture.supplyAsync(() ->
+                itemService.save(new Item("LongPoll", "d", ItemStatus.PENDING, "poll@changes.test"))).join();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(List.of(item.getId() + ":" + ItemChangeType.CREATED), changesOf(result, item));
+        assertTrue(System.nanoTime() - start < 10_000_000_000L, "answered on the commit, not after the wait");
+    }
+
+    /**
+     * Writers that run through several sequence blocks at once, while a reader keeps following the feed:
+     * the reader ends up with every change exactly once, so no number was skipped past or handed out twice.
+     */
+    @Test
+    public void testConcurrentWritersNeverLetTheReaderSkipChanges() throws Exception {
+        long since = currentCursor();
+        int writers = 8;
+        int perTransaction = 120;
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        for (int writer = 0; writer < writers; writer++) {
+            // Negative item IDs, so no other test's changes get mixed in.
+            List<Long> ids = LongStream.range(0, perTransaction).map(i -> -1_000_000L - i).boxed().toList();
+            writes.add(CompletableFuture.runAsync(() -> {
+                for (int round = 0; round < 3; round++) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            changeLog.record(ItemChangeType.PROCESSED, ids));
+                }
+            }, executor));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        int ours = 0;
+        long cursor = since;
+        CompletableFuture<Void> allWritten = CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]));
+        while (true) {
+            boolean done = allWritten.isDone();
+            for (ItemChange change : changeLog.changesSince(cursor, 1000)) {
+                assertTrue(seen.add(change.seq()), "seq " + change.seq() + " read twice");
+                cursor = change.seq();
+                if (change.itemId() <= -1_000_000L) {
+                    ours++;
+                }
+            }
+            if (done && changeLog.changesSince(cursor, 1).isEmpty()) {
+                break;
+            }
+        }
+        allWritten.join();
+        executor.shutdown();
+
+        assertEquals(writers * 3 * perTransaction, ours);
+    }
+}
@@ -0,0 +1,76 @@
+package com.siemens.internship;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.ItemService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test class covers the chunked processing mode.
+ * We shrink the chunk size and drop the simulated delay, so a handful of items
+ * is enough to go through several chunks and several workers in a fraction of a second.
+ */
+@SpringBootTest(properties = {
+        "items.processing.chunk-size=2",
+        "items.processing.max-in-flight-chunks=2",
+        "items.processing.item-delay=0ms"
+})
+public class ItemChunkProcessingTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    /**
+     * We save five pending items and run the chunked processing.
+     * Every chunk handed to the listener must respect the configured chunk size,
+     * the future must report all items as processed, and the DB must agree.
+     */
+    @Test
+    public void testAllItemsProcessedInChunks() {
+        for (int i = 0; i < 5; i++) {
+            itemRepository.save(new Item("Chunk " + i, "Desc", ItemStatus.PENDING, "chunk" + i + "@example.com"));
+        }
+        long total = itemRepository.count();
+
+        List<Integer> chunkSizes = new CopyOnWriteArrayList<>();
+        long processed = itemService.processItemsInChunks(chunk -> chunkSizes.add(chunk.size())).join();
+
+        assertEquals(total, processed);
+        assertTrue(chunkSizes.stream().allMatch(size -> size <= 2));
+        assertEquals(total, chunkSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(itemRepository.findAll().stream().allMatch(item -> item.getStatus() == ItemStatus.PROCESSED));
+    }
+
+    /**
+     * Incremental mode must leave already processed items alone, and two runs started at the same time
+     * must split the pending items between them instead of both processing everything.
+     */
+    @Test
+    public void testIncrementalRunsOnlyProcessPendingItemsOnce() {
+        Item done = new Item("Done", "Desc", ItemStatus.PROCESSED, "done@example.com");
+        itemRepository.save(done);
+        for (int i = 0; i < 6; i++) {
+            itemRepository.save(new Item("Pending " + i, "Desc", ItemStatus.PENDING, "pending" + i + "@example.com"));
+        }
+        long pending = itemRepository.countByStatus(ItemStatus.PENDING);
+
+        var first = itemService.processItemsInChunks(ProcessingMode.INCREMENTAL, chunk -> { });
+        var second = itemService.processItemsInChunks(ProcessingMode.INCREMENTAL, chunk -> { });
+
+        assertEquals(pending, first.join() + second.join());
+        assertEquals(0, itemRepository.countByStatus(ItemStatus.PENDING));
+        assertEquals(0, itemRepository.countByStatus(ItemStatus.IN_PROGRESS));
+    }
+}
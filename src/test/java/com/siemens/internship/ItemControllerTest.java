@@ -1,6 +1,7 @@
 
 package com.siemens.internship;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,7 +35,7 @@ public class ItemControllerTest {
         Item item = new Item();
         item.setName("Test Item");
         item.setDescription("This is a test item.");
-        item.setStatus("PENDING");
+        item.setStatus(ItemStatus.PENDING);
         item.setEmail("test@example.com");
 
         mockMvc.perform(post("/api/items")
@@ -56,7 +57,7 @@ public class ItemControllerTest {
         Item item = new Item();
         item.setName("Invalid Email Item");
         item.setDescription("Desc");
-        item.setStatus("PENDING");
+        item.setStatus(ItemStatus.PENDING);
         item.setEmail("not-an-email");
 
         mockMvc.perform(post("/api/items")
@@ -76,7 +77,7 @@ public class ItemControllerTest {
         Item item = new Item();
         item.setName("Sample");
         item.setDescription("Desc");
-        item.setStatus("PENDING");
+        item.setStatus(ItemStatus.PENDING);
         item.setEmail("sample@example.com");
 
         Item saved = objectMapper.readValue(mockMvc.perform(post("/api/items")
@@ -111,7 +112,7 @@ public class ItemControllerTest {
         Item item = new Item();
         item.setName("Initial");
         item.setDescription("To be updated");
-        item.setStatus("PENDING");
+        item.setStatus(ItemStatus.PENDING);
         item.setEmail("update@example.com");
 
         Item saved = objectMapper.readValue(mockMvc.perform(post("/api/items")
@@ -138,7 +139,7 @@ public class ItemControllerTest {
         Item item = new Item();
         item.setName("To Delete");
         item.setDescription("Desc");
-        item.setStatus("PENDING");
+        item.setStatus(ItemStatus.PENDING);
         item.setEmail("delete@example.com");
 
         Item saved = objectMapper.readValue(mockMvc.perform(post("/api/items")
@@ -149,4 +150,71 @@ public class ItemControllerTest {
         mockMvc.perform(delete("/api/items/" + saved.getId()))
                 .andExpect(status().isNoContent());
     }
+
+    /**
+     * Small helper for the listing tests: creates an item through the API and returns what the server saved.
+     */
+    private Item createItem(String name, String email) throws Exception {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("Listing test item");
+        item.setStatus(ItemStatus.PENDING);
+        item.setEmail(email);
+
+        return objectMapper.readValue(mockMvc.perform(post("/api/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(item)))
+                .andReturn().getResponse().getContentAsString(), Item.class);
+    }
+
+    /**
+     * Here we check the cursor pagination on GET /api/items.
+     * We create three items and list them two at a time starting just before the first one:
+     * the first page must be full and point to the next one through the X-Next-Cursor header,
+     * and following that cursor must continue exactly where the first page stopped.
+     */
+    @Test
+    public void testListItemsWithCursor() throws Exception {
+        Item first = createItem("Page 1", "page1@example.com");
+        Item second = createItem("Page 2", "page2@example.com");
+        Item third = createItem("Page 3", "page3@example.com");
+
+        mockMvc.perform(get("/api/items")
+                        .param("after", String.valueOf(first.getId() - 1))
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(first.getId()))
+                .andExpect(jsonPath("$[1].id").value(second.getId()))
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(second.getId())));
+
+        mockMvc.perform(get("/api/items")
+                        .param("after", String.valueOf(second.getId()))
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(third.getId()));
+    }
+
+    /**
+     * With ?fields= we only want the requested fields back – here no name, email or description.
+     * Asking for a field that doesn't exist should be a 400, not an empty value.
+     */
+    @Test
+    public void testListItemsWithFieldProjection() throws Exception {
+        Item saved = createItem("Projected", "projected@example.com");
+
+        mockMvc.perform(get("/api/items")
+                        .param("after", String.valueOf(saved.getId() - 1))
+                        .param("size", "1")
+                        .param("fields", "id,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(saved.getId()))
+                .andExpect(jsonPath("$[0].status").value("PENDING"))
+                .andExpect(jsonPath("$[0].name").doesNotExist())
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        mockMvc.perform(get("/api/items").param("fields", "id,secret"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("Unknown field(s): secret")));
+    }
 }
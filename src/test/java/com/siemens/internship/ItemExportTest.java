@@ -0,0 +1,100 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for GET /api/items/export in both formats.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ItemExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private byte[] export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/items/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    /**
+     * Values with commas, quotes and line breaks are quoted, null values are left empty.
+     */
+    @Test
+    public void testCsvExportQuotesSpecialCharacters() throws Exception {
+        Item item = itemRepository.save(new Item("Export, \"quoted\"", "two\nlines", ItemStatus.PENDING, "csv@export.test"));
+        Item empty = itemRepository.save(new Item("Plain", null, ItemStatus.PENDING, "nulls@export.test"));
+
+        String csv = new String(export("csv"), StandardCharsets.UTF_8);
+
+        assertTrue(csv.startsWith("id,name,description,status,email\r\n"));
+        assertTrue(csv.contains(item.getId() + ",\"Export, \"\"quoted\"\"\",\"two\nlines\",PENDING,csv@export.test\r\n"));
+        assertTrue(csv.contains(empty.getId() + ",Plain,,PENDING,nulls@export.test\r\n"));
+    }
+
+    /**
+     * The binary export reads back to the same rows, with a trailer that counts them.
+     */
+    @Test
+    public void testBinaryExportRoundTrips() throws Exception {
+        Item item = itemRepository.save(new Item("Bïnäry", null, ItemStatus.PROCESSED, "binary@export.test"));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(export("binary")));
+        assertArrayEquals("ITEMS".getBytes(StandardCharsets.US_ASCII), in.readNBytes(5));
+        assertEquals(1, in.readByte());
+
+        Map<Long, List<String>> rows = new HashMap<>();
+        long previousId = 0;
+        while (in.readByte() == 1) {
+            long id = in.readLong();
+            assertTrue(id > previousId, "rows come in ID order");
+            previousId = id;
+            rows.put(id, Arrays.asList(readString(in), readString(in), readString(in), readString(in)));
+        }
+        assertEquals(rows.size(), in.readLong());
+        assertEquals(-1, in.read());
+
+        assertEquals(itemRepository.count(), rows.size());
+        assertEquals(Arrays.asList("Bïnäry", null, "PROCESSED", "binary@export.test"), rows.get(item.getId()));
+    }
+
+    private static String readString(DataInputStream in) throws Exception {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testUnknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/items/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,76 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.ItemService;
+
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Checks that processing runs show up in the metrics, and that they are exported in Prometheus format.
+ * Tests normally get a plain in-memory registry without exporters; @AutoConfigureObservability
+ * gives us the real Prometheus one.
+ */
+@SpringBootTest(properties = "items.processing.item-delay=0ms")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class ItemMetricsTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private double processedCount() {
+        return registry.get("items.processing.items").tag("outcome", "processed").counter().count();
+    }
+
+    /**
+     * A chunked run counts every processed item and records one run and one timing per item.
+     */
+    @Test
+    public void testProcessingRunIsMeasured() {
+        for (int i = 0; i < 3; i++) {
+            itemRepository.save(new Item("Metric " + i, "Desc", ItemStatus.PENDING, "metric" + i + "@example.com"));
+        }
+        double processedBefore = processedCount();
+        long runsBefore = registry.get("items.processing.run").tag("mode", "chunked").timer().count();
+
+        long processed = itemService.processItemsInChunks(chunk -> { }).join();
+
+        assertEquals(processedBefore + processed, processedCount());
+        assertEquals(runsBefore + 1, registry.get("items.processing.run").tag("mode", "chunked").timer().count());
+        assertTrue(registry.get("items.processing.item").timer().count() >= processed);
+    }
+
+    @Test
+    public void testPrometheusEndpoint() throws Exception {
+        mockMvc.perform(get("/api/items"));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("items_processing_items_total")))
+                .andExpect(content().string(containsString("items_processing_db_permits_active")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")));
+    }
+}
@@ -0,0 +1,85 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.ItemService;
+
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the statement-lean persistence path, on the "perf" profile and with Hibernate statistics on,
+ * so we can count what actually reaches the database.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("perf")
+public class ItemPersistenceTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Item detachedCopy(Item item) {
+        Item copy = new Item(item.getName(), item.getDescription(), item.getStatus(), item.getEmail());
+        copy.setId(item.getId());
+        copy.setVersion(item.getVersion());
+        return copy;
+    }
+
+    /**
+     * Saving a detached item is a single UPDATE: no SELECT to load the row first, as merge() would do.
+     */
+    @Test
+    public void testUpdatingDetachedItemSkipsTheMergeSelect() {
+        Item item = itemRepository.save(new Item("Detached", "d", ItemStatus.PENDING, "detached@persistence.test"));
+        Item changed = detachedCopy(item);
+        changed.setName("Detached, updated");
+
+        statistics.clear();
+        Item saved = itemService.save(changed);
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(item.getVersion() + 1, saved.getVersion());
+        Item stored = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("Detached, updated", stored.getName());
+        assertEquals(saved.getVersion(), stored.getVersion());
+    }
+
+    /**
+     * The UPDATE checks the version itself, so a stale copy still fails like it would with merge().
+     */
+    @Test
+    public void testUpdatingStaleItemFails() {
+        Item item = itemRepository.save(new Item("Stale", "d", ItemStatus.PENDING, "stale@persistence.test"));
+        Item first = detachedCopy(item);
+        Item second = detachedCopy(item);
+
+        itemService.save(first);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemService.save(second));
+        assertEquals(item.getVersion() + 1, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+    }
+}
@@ -0,0 +1,170 @@
+package com.siemens.internship;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.service.ItemPipeline;
+import com.siemens.internship.service.ItemProcessor;
+import com.siemens.internship.service.ProcessingMetrics;
+
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the striped processing pipeline, without a Spring context.
+ * A recording stage remembers which item it saw on which thread, so we can check per-key ordering,
+ * that different keys really run in parallel, and that stages run one after another.
+ */
+public class ItemPipelineTest {
+
+    /**
+     * Records every call. Items whose keys share a lane must never overlap, which we check with the busy set.
+     */
+    private static class RecordingProcessor implements ItemProcessor {
+
+        private final String name;
+        private final List<String> calls;
+        private final Map<Object, List<Long>> seenPerKey = new ConcurrentHashMap<>();
+        private final Set<Object> busyKeys = ConcurrentHashMap.newKeySet();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private volatile boolean overlapped;
+
+        RecordingProcessor(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void process(Item item) throws InterruptedException {
+            Object key = orderingKey(item);
+            if (!busyKeys.add(key)) {
+                overlapped = true;
+            }
+            threads.add(Thread.currentThread().getName());
+            Thread.sleep(5);
+            seenPerKey.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(item.getId());
+            calls.add(name + ":" + item.getId());
+            busyKeys.remove(key);
+        }
+
+        @Override
+        public int parallelism() {
+            return 4;
+        }
+    }
+
+    private static List<Item> items(int count, int keys) {
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Item item = new Item("Item " + id, "Desc", ItemStatus.PENDING, "key" + (id % keys) + "@example.com");
+            item.setId(id);
+            items.add(item);
+        }
+        return items;
+    }
+
+    @Test
+    public void testItemsWithTheSameKeyAreProcessedInOrderAndOthersInParallel() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        RecordingProcessor stage = new RecordingProcessor("record", calls);
+        ItemPipeline pipeline = new ItemPipeline(List.of(stage), new ItemProcessingProperties(),
+                new ProcessingMetrics(new SimpleMeterRegistry()));
+
+        pipeline.process(items(40, 8));
+
+        assertEquals(40, calls.size());
+        assertFalse(stage.overlapped);
+        assertTrue(stage.threads.size() > 1);
+        for (List<Long> ids : stage.seenPerKey.values()) {
+            assertEquals(ids.stream().sorted().toList(), ids);
+        }
+    }
+
+    @Test
+    public void testStagesRunInOrder() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        ItemPipeline pipeline = new ItemPipeline(
+                List.of(new RecordingProcessor("first", calls), new RecordingProcessor("second", calls)),
+                new ItemProcessingProperties(), new ProcessingMetrics(new SimpleMeterRegistry()));
+
+        pipeline.process(items(10, 3));
+
+        assertEquals(20, calls.size());
+        assertTrue(calls.subList(0, 10).stream().allMatch(call -> call.startsWith("first:")));
+        assertTrue(calls.subList(10, 20).stream().allMatch(call -> call.startsWith("second:")));
+    }
+
+    /**
+     * Two chunks in flight at once, sharing keys: the later chunk gets to the pipeline first,
+     * but still waits for the earlier one, so every key sees the earlier chunk's items first.
+     */
+    @Test
+    public void testOverlappingChunksKeepTicketOrderPerKey() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        RecordingProcessor stage = new RecordingProcessor("record", calls);
+        ItemPipeline pipeline = new ItemPipeline(List.of(stage, new RecordingProcessor("second", calls)),
+                new ItemProcessingProperties(), new ProcessingMetrics(new SimpleMeterRegistry()));
+        List<Item> items = items(40, 4);
+
+        ItemPipeline.Ticket earlier = pipeline.reserve();
+        ItemPipeline.Ticket later = pipeline.reserve();
+        CompletableFuture<Void> laterChunk = CompletableFuture.runAsync(() -> {
+            try (later) {
+                pipeline.process(later, items.subList(20, 40));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertTrue(calls.isEmpty(), "The later chunk went ahead of the earlier one");
+        try (earlier) {
+            pipeline.process(earlier, items.subList(0, 20));
+        }
+        laterChunk.get(10, TimeUnit.SECONDS);
+
+        assertEquals(80, calls.size());
+        assertFalse(stage.overlapped);
+        for (List<Long> ids : stage.seenPerKey.values()) {
+            assertEquals(ids.stream().sorted().toList(), ids);
+        }
+    }
+
+    /**
+     * A chunk that never makes it to the pipeline (its load failed, say) gives up its place when its ticket closes.
+     */
+    @Test
+    public void testClosedTicketDoesNotHoldUpLaterChunks() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        ItemPipeline pipeline = new ItemPipeline(List.of(new RecordingProcessor("record", calls)),
+                new ItemProcessingProperties(), new ProcessingMetrics(new SimpleMeterRegistry()));
+
+        ItemPipeline.Ticket abandoned = pipeline.reserve();
+        CompletableFuture<Void> laterChunk = CompletableFuture.runAsync(() -> {
+            try {
+                pipeline.process(items(5, 2));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        abandoned.close();
+        laterChunk.get(10, TimeUnit.SECONDS);
+
+        assertEquals(5, calls.size());
+    }
+}
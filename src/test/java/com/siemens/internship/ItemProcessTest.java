@@ -1,6 +1,7 @@
 
 package com.siemens.internship;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,6 +23,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * This test class is specifically written to verify the behavior of the /process endpoint,
@@ -52,7 +55,7 @@ public class ItemProcessTest {
         Item item = new Item();
         item.setName("ToProcess");
         item.setDescription("Needs processing");
-        item.setStatus("PENDING");
+        item.setStatus(ItemStatus.PENDING);
         item.setEmail("valid@email.com");
 
         // We send this item to the server using a POST request.
@@ -74,4 +77,38 @@ public class ItemProcessTest {
                 .andExpect(jsonPath("$").isArray()) // The response should be a JSON array
                 .andExpect(jsonPath("$[0].status").value("PROCESSED")); // The first item's status should now be PROCESSED
     }
+
+    /**
+     * Same scenario for the streaming endpoint: we add a PENDING item, call /process/stream,
+     * and expect NDJSON back – one item per line, every one of them PROCESSED.
+     */
+    @Test
+    public void testProcessItemsStreamEndpoint() throws Exception {
+        Item item = new Item();
+        item.setName("ToStream");
+        item.setDescription("Needs processing");
+        item.setStatus(ItemStatus.PENDING);
+        item.setEmail("stream@email.com");
+
+        mockMvc.perform(post("/api/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(item)))
+                .andExpect(status().isCreated());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/items/process/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Every non-empty line has to be a standalone JSON item that has been processed.
+        String[] lines = body.strip().split("\n");
+        assertTrue(lines.length >= 1);
+        for (String line : lines) {
+            assertEquals(ItemStatus.PROCESSED, objectMapper.readValue(line, Item.class).getStatus());
+        }
+    }
 }
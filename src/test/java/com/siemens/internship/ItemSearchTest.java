@@ -0,0 +1,169 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for GET /api/items/search. Every test uses its own made-up words and email domain,
+ * so items saved by other tests in the shared database never match.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ItemSearchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private List<String> names(MvcResult result) throws Exception {
+        List<String> names = new ArrayList<>();
+        for (JsonNode item : objectMapper.readTree(result.getResponse().getContentAsString())) {
+            names.add(item.get("name").asText());
+        }
+        return names;
+    }
+
+    @Test
+    public void testFullTextSearchMatchesNameAndDescription() throws Exception {
+        itemRepository.save(new Item("Zebrawidget", "Plain", ItemStatus.PENDING, "a@fulltext.test"));
+        itemRepository.save(new Item("Other", "Contains zebrawidget too", ItemStatus.PROCESSED, "b@fulltext.test"));
+        itemRepository.save(new Item("Unrelated", "Nothing here", ItemStatus.PENDING, "c@fulltext.test"));
+
+        MvcResult all = mockMvc.perform(get("/api/items/search").param("q", "zebrawidget"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(List.of("Zebrawidget", "Other"), names(all));
+
+        MvcResult pending = mockMvc.perform(get("/api/items/search")
+                        .param("q", "zebrawidget").param("status", "PENDING"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(List.of("Zebrawidget"), names(pending));
+    }
+
+    /**
+     * Updates and deletes must show up in the full-text index right away.
+     */
+    @Test
+    public void testFullTextIndexFollowsUpdatesAndDeletes() throws Exception {
+        Item item = itemRepository.save(new Item("Quokkagadget", "Desc", ItemStatus.PENDING, "d@fulltext.test"));
+        item.setName("Renamed");
+        item = itemRepository.save(item);
+
+        mockMvc.perform(get("/api/items/search").param("q", "quokkagadget"))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        item.setDescription("Now a wombatgizmo");
+        item = itemRepository.save(item);
+        mockMvc.perform(get("/api/items/search").param("q", "wombatgizmo"))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        itemRepository.deleteById(item.getId());
+        mockMvc.perform(get("/api/items/search").param("q", "wombatgizmo"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    public void testEmailFiltersAndPaging() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            itemRepository.save(new Item("Mail " + i, "Desc", ItemStatus.PENDING, "user" + i + "@prefix_search.test"));
+        }
+        // The underscore in the prefix must be matched literally, not as a LIKE wildcard.
+        itemRepository.save(new Item("Lookalike", "Desc", ItemStatus.PENDING, "user9@prefixXsearch.test"));
+
+        MvcResult exact = mockMvc.perform(get("/api/items/search").param("email", "user1@prefix_search.test"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(List.of("Mail 1"), names(exact));
+
+        MvcResult firstPage = mockMvc.perform(get("/api/items/search")
+                        .param("emailPrefix", "user").param("status", "PENDING").param("q", "desc").param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(2, names(firstPage).size());
+
+        MvcResult prefix = mockMvc.perform(get("/api/items/search")
+                        .param("emailPrefix", "user0@prefix_").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andReturn();
+        assertEquals(List.of("Mail 0"), names(prefix));
+
+        MvcResult paged = mockMvc.perform(get("/api/items/search").param("q", "mail").param("size", "2"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+        assertEquals(List.of("Mail 0", "Mail 1"), names(paged));
+        mockMvc.perform(get("/api/items/search").param("q", "mail").param("size", "2")
+                        .param("after", paged.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(jsonPath("$[0].name").value("Mail 2"));
+    }
+
+    /**
+     * More matches than a page holds: pages continue where the last one stopped, and a status filter that
+     * skips every match of the first batch of IDs still finds the one further on. The items are deleted
+     * again afterwards, so processing runs in other tests don't have to go through them.
+     */
+    @Test
+    public void testTextSearchWithMoreMatchesThanAPage() throws Exception {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            items.add(new Item("Wombatgizmo " + i, "Desc", ItemStatus.PROCESSED, "user" + i + "@many_hits.test"));
+        }
+        items.add(new Item("Wombatgizmo pending", "Desc", ItemStatus.PENDING, "pending@many_hits.test"));
+        itemRepository.saveAll(items);
+        try {
+            List<String> seen = new ArrayList<>();
+            String cursor = null;
+            for (int page = 0; page < 3; page++) {
+                var request = get("/api/items/search").param("q", "wombatgizmo").param("size", "5");
+                MvcResult result = mockMvc.perform(cursor == null ? request : request.param("after", cursor))
+                        .andExpect(status().isOk())
+                        .andExpect(header().exists("X-Next-Cursor"))
+                        .andReturn();
+                seen.addAll(names(result));
+                cursor = result.getResponse().getHeader("X-Next-Cursor");
+            }
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 15; i++) {
+                expected.add("Wombatgizmo " + i);
+            }
+            assertEquals(expected, seen);
+
+            MvcResult pending = mockMvc.perform(get("/api/items/search")
+                            .param("q", "wombatgizmo").param("status", "PENDING").param("size", "5"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            assertEquals(List.of("Wombatgizmo pending"), names(pending));
+        } finally {
+            itemRepository.deleteAllInBatch(items);
+        }
+    }
+
+    @Test
+    public void testSearchNeedsAFilter() throws Exception {
+        mockMvc.perform(get("/api/items/search"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,129 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the hand-written JSON paths: ItemJsonSerializer, the listing streamed from JDBC rows,
+ * and the allocation metric recorded per response.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ItemSerializationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    /**
+     * Puts Jackson's reflection-based bean serializer back in place of ItemJsonSerializer.
+     */
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+
+    private List<Item> seed() {
+        List<Item> items = new ArrayList<>();
+        items.add(itemRepository.save(new Item("Quote \" and \\ backslash", "Ünïcödé ✓\n", ItemStatus.PENDING, "a@json.test")));
+        items.add(itemRepository.save(new Item("No description", null, ItemStatus.PROCESSED, "b@json.test")));
+        items.add(itemRepository.save(new Item("Third", "d", ItemStatus.IN_PROGRESS, "c@json.test")));
+        items.add(itemRepository.save(new Item("Fourth", "d", ItemStatus.PENDING, "d@json.test")));
+        return items;
+    }
+
+    /**
+     * The custom serializer writes exactly what the bean serializer wrote, nulls and escaping included,
+     * and still leaves out the internal fields.
+     */
+    @Test
+    public void testSerializerMatchesBeanSerializer() throws Exception {
+        ObjectMapper beanMapper = objectMapper.copy().addMixIn(Item.class, BeanSerialized.class);
+        Item full = seed().get(0);
+        full.setClaimToken("token");
+        Item empty = new Item();
+
+        for (Item item : List.of(full, empty)) {
+            assertEquals(beanMapper.writeValueAsString(item), objectMapper.writeValueAsString(item));
+        }
+        assertEquals(beanMapper.writeValueAsString(List.of(full, empty)), objectMapper.writeValueAsString(List.of(full, empty)));
+        assertFalse(objectMapper.writeValueAsString(full).contains("token"));
+    }
+
+    /**
+     * A page written from the rows is the same JSON the entities make, and its cursor points at its last item.
+     */
+    @Test
+    public void testListingIsStreamedLikeEntities() throws Exception {
+        List<Item> items = seed();
+        long after = items.get(0).getId() - 1;
+
+        MvcResult result = mockMvc.perform(get("/api/items").param("after", String.valueOf(after)).param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(items.get(2).getId())))
+                .andReturn();
+
+        assertEquals(objectMapper.writeValueAsString(items.subList(0, 3)),
+                result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * With ?fields= the objects hold the requested fields in the requested order, nulls included.
+     */
+    @Test
+    public void testProjectedListingKeepsRequestedOrder() throws Exception {
+        List<Item> items = seed();
+        long after = items.get(1).getId() - 1;
+
+        MvcResult result = mockMvc.perform(get("/api/items").param("after", String.valueOf(after)).param("size", "1")
+                        .param("fields", "status,description,id"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("[{\"status\":\"PROCESSED\",\"description\":null,\"id\":" + items.get(1).getId() + "}]",
+                result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Every response records how much it allocated, under the endpoint's URI pattern.
+     */
+    @Test
+    public void testAllocationIsRecordedPerResponse() throws Exception {
+        seed();
+        mockMvc.perform(get("/api/items").param("size", "50")).andExpect(status().isOk());
+
+        DistributionSummary allocation = registry.find("items.response.allocation")
+                .tag("uri", "/api/items").tag("method", "GET").summary();
+        assertNotNull(allocation);
+        assertTrue(allocation.count() >= 1);
+        assertTrue(allocation.totalAmount() > 0);
+    }
+}
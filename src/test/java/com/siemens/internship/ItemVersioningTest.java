@@ -0,0 +1,176 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for optimistic locking on single items: ETags on GET, conditional PUT and the targeted PATCH.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ItemVersioningTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String eTagOf(Long id) throws Exception {
+        return mockMvc.perform(get("/api/items/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private String json(String name, String email) throws Exception {
+        return objectMapper.writeValueAsString(new Item(name, "Desc", ItemStatus.PENDING, email));
+    }
+
+    @Test
+    public void testGetHonoursIfNoneMatch() throws Exception {
+        Item saved = itemRepository.save(new Item("Tagged", "Desc", ItemStatus.PENDING, "tagged@example.com"));
+        String eTag = eTagOf(saved.getId());
+
+        mockMvc.perform(get("/api/items/" + saved.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * A PUT with the current ETag goes through and hands out a new one; replaying it with the old ETag
+     * must fail with 412 instead of overwriting the first update.
+     */
+    @Test
+    public void testPutWithStaleETagIsRejected() throws Exception {
+        Item saved = itemRepository.save(new Item("Original", "Desc", ItemStatus.PENDING, "original@example.com"));
+        String eTag = eTagOf(saved.getId());
+
+        String newETag = mockMvc.perform(put("/api/items/" + saved.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("First", "first@example.com")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+
+        mockMvc.perform(put("/api/items/" + saved.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("Second", "second@example.com")))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("First", itemRepository.findById(saved.getId()).orElseThrow().getName());
+    }
+
+    /**
+     * A row inserted without a version (by SQL, not Hibernate) starts at version 0 and can be updated like any other.
+     */
+    @Test
+    public void testRowInsertedWithoutVersionStartsAtZero() throws Exception {
+        long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR item_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO item (id, name, status, email) VALUES (?, 'Raw', 'PENDING', 'raw@example.com')",
+                id);
+
+        assertEquals("\"0\"", eTagOf(id));
+        mockMvc.perform(put("/api/items/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json("Updated", "raw@example.com")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    /**
+     * PATCH only writes the fields it was given, so a status set concurrently by processing survives.
+     */
+    @Test
+    public void testPatchOnlyTouchesGivenFields() throws Exception {
+        Item saved = itemRepository.save(new Item("Patchable", "Desc", ItemStatus.PENDING, "patch1@example.com"));
+        saved.setStatus(ItemStatus.PROCESSED);
+        itemRepository.save(saved);
+
+        mockMvc.perform(patch("/api/items/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Patched\"}"))
+                .andExpect(status().isNoContent());
+
+        Item stored = itemRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("Patched", stored.getName());
+        assertEquals("patch1@example.com", stored.getEmail());
+        assertEquals(ItemStatus.PROCESSED, stored.getStatus());
+    }
+
+    @Test
+    public void testConditionalPatch() throws Exception {
+        Item saved = itemRepository.save(new Item("Conditional", "Desc", ItemStatus.PENDING, "patch2@example.com"));
+        String eTag = eTagOf(saved.getId());
+
+        mockMvc.perform(patch("/api/items/" + saved.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Changed\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, eTagOf(saved.getId())));
+
+        mockMvc.perform(patch("/api/items/" + saved.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Again\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/api/items/999999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Nobody\"}"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(patch("/api/items/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"not-an-email\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * A PUT that leaves the status out keeps the row's status, and a PUT never releases a claim held by processing:
+     * the claim columns aren't part of the body.
+     */
+    @Test
+    public void testPutWithoutStatusKeepsStatusAndClaim() throws Exception {
+        Item saved = itemRepository.save(new Item("Claimed", "Desc", ItemStatus.IN_PROGRESS, "claimed@example.com"));
+        jdbcTemplate.update("UPDATE item SET claim_token = 'run-1', claimed_at = CURRENT_TIMESTAMP WHERE id = ?",
+                saved.getId());
+
+        mockMvc.perform(put("/api/items/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"description\":\"Desc\",\"email\":\"claimed@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+
+        assertEquals("IN_PROGRESS", jdbcTemplate.queryForObject("SELECT status FROM item WHERE id = ?",
+                String.class, saved.getId()));
+        assertEquals("run-1", jdbcTemplate.queryForObject("SELECT claim_token FROM item WHERE id = ?",
+                String.class, saved.getId()));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT claimed_at FROM item WHERE id = ?",
+                Object.class, saved.getId()));
+    }
+}
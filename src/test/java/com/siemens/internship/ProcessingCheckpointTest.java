@@ -0,0 +1,150 @@
+package com.siemens.internship;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingRunRepository;
+import com.siemens.internship.repository.ProcessingRunRepository.RunState;
+import com.siemens.internship.service.ItemProcessor;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingJob;
+import com.siemens.internship.service.ProcessingJobService;
+import com.siemens.internship.service.ProcessingRun;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for durable processing: checkpoints, the failure table with retries, and resuming interrupted runs.
+ * An extra pipeline stage makes "Flaky" items fail their first two attempts and "Broken" items fail every time.
+ */
+@SpringBootTest(properties = {
+        "items.processing.item-delay=0ms",
+        "items.processing.chunk-size=2",
+        "items.processing.resume-on-startup=false",
+        "items.processing.retry.max-attempts=3",
+        "items.processing.retry.initial-backoff=20ms"
+})
+public class ProcessingCheckpointTest {
+
+    @TestConfiguration
+    static class FailingStageConfig {
+
+        @Bean
+        ItemProcessor failingStage() {
+            Map<Long, AtomicInteger> attempts = new ConcurrentHashMap<>();
+            return new ItemProcessor() {
+                @Override
+                public String name() {
+                    return "failing-stage";
+                }
+
+                @Override
+                public void process(Item item) {
+                    int attempt = attempts.computeIfAbsent(item.getId(), id -> new AtomicInteger()).incrementAndGet();
+                    if (item.getName().startsWith("Broken") || (item.getName().startsWith("Flaky") && attempt <= 2)) {
+                        throw new IllegalStateException("Stage failed for " + item.getName());
+                    }
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ProcessingJobService jobService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProcessingRunRepository processingRuns;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ItemStatus statusOf(Item item) {
+        return itemRepository.findById(item.getId()).orElseThrow().getStatus();
+    }
+
+    private long checkpointOf(UUID runId) {
+        return jdbcTemplate.queryForObject("SELECT checkpoint_id FROM processing_run WHERE id = ?", Long.class, runId);
+    }
+
+    /**
+     * A failing chunk doesn't hold the run up: its items are retried one by one with backoff.
+     * The flaky item (and whatever shared its chunk) goes through on a retry; the broken one uses up its
+     * attempts and stays in processing_failure with its error. The run still completes, with a checkpoint
+     * at the end of the table.
+     */
+    @Test
+    public void testFailedItemsAreRetriedWithBackoff() {
+        Item flaky = itemRepository.save(new Item("Flaky", "d", ItemStatus.PENDING, "flaky@checkpoint.test"));
+        Item broken = itemRepository.save(new Item("Broken", "d", ItemStatus.PENDING, "broken@checkpoint.test"));
+        Item fine = itemRepository.save(new Item("Fine", "d", ItemStatus.PENDING, "fine@checkpoint.test"));
+
+        ProcessingRun run = new ProcessingRun();
+        itemService.processItemsInChunks(ProcessingMode.CHUNKED, run, chunk -> { }).join();
+
+        assertEquals(ItemStatus.PROCESSED, statusOf(flaky));
+        assertEquals(ItemStatus.PROCESSED, statusOf(fine));
+        assertEquals(ItemStatus.PENDING, statusOf(broken));
+        assertEquals(1, run.getFailed());
+
+        assertEquals(0, processingRuns.findAttempts(run.getId(), flaky.getId()));
+        assertEquals(3, processingRuns.findAttempts(run.getId(), broken.getId()));
+        String reason = jdbcTemplate.queryForObject("SELECT reason FROM processing_failure WHERE run_id = ? AND item_id = ?",
+                String.class, run.getId(), broken.getId());
+        assertTrue(reason.contains("Stage failed for Broken"), reason);
+
+        assertEquals(RunState.COMPLETED, processingRuns.findState(run.getId()).orElseThrow());
+        assertTrue(checkpointOf(run.getId()) >= fine.getId());
+    }
+
+    /**
+     * A run left RUNNING (as after a crash) is picked up as a job with the same ID, and only processes
+     * what comes after its checkpoint.
+     */
+    @Test
+    public void testInterruptedRunResumesAfterCheckpoint() throws Exception {
+        Item done1 = itemRepository.save(new Item("Done1", "d", ItemStatus.PENDING, "done1@checkpoint.test"));
+        Item done2 = itemRepository.save(new Item("Done2", "d", ItemStatus.PENDING, "done2@checkpoint.test"));
+        Item left1 = itemRepository.save(new Item("Left1", "d", ItemStatus.PENDING, "left1@checkpoint.test"));
+        Item left2 = itemRepository.save(new Item("Left2", "d", ItemStatus.PENDING, "left2@checkpoint.test"));
+
+        UUID runId = UUID.randomUUID();
+        processingRuns.startRun(runId, ProcessingMode.CHUNKED);
+        processingRuns.saveCheckpoint(runId, done2.getId());
+
+        jobService.resumeInterruptedRuns();
+        ProcessingJob job = jobService.find(runId).orElseThrow();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(ProcessingJob.State.COMPLETED, job.getState());
+        assertEquals(done2.getId(), job.getResumedAfter());
+        // Everything up to the checkpoint counts as done already, so the resumed run doesn't touch it.
+        assertEquals(ItemStatus.PENDING, statusOf(done1));
+        assertEquals(ItemStatus.PENDING, statusOf(done2));
+        assertEquals(ItemStatus.PROCESSED, statusOf(left1));
+        assertEquals(ItemStatus.PROCESSED, statusOf(left2));
+        assertEquals(RunState.COMPLETED, processingRuns.findState(runId).orElseThrow());
+        assertTrue(checkpointOf(runId) >= left2.getId());
+    }
+}
@@ -0,0 +1,184 @@
+package com.siemens.internship;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ProcessingPartitionRepository;
+import com.siemens.internship.repository.ProcessingPartitionRepository.Partition;
+import com.siemens.internship.repository.ProcessingRunRepository;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingRun;
+
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PARTITIONED processing across several instances. Each test boots its own application contexts
+ * in this JVM, all against one in-memory database served by an H2 TCP server, the way replicas share
+ * a database server. Leases and heartbeats are shortened so a dead instance is noticed within a second.
+ */
+public class ProcessingClusterTest {
+
+    private static Server server;
+
+    private final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+    private final String database = "cluster-" + UUID.randomUUID();
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @AfterEach
+    void stopInstances() {
+        instances.forEach(ConfigurableApplicationContext::close);
+    }
+
+    /**
+     * The properties go in as command line arguments, so they win over application.properties.
+     */
+    private ConfigurableApplicationContext startInstance(String instanceId) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:" + database
+                                + ";DB_CLOSE_DELAY=-1",
+                        "--spring.main.banner-mode=off",
+                        "--items.processing.mode=partitioned",
+                        "--items.processing.cluster.enabled=true",
+                        "--items.changes.enabled=false",
+                        "--items.processing.cluster.instance-id=" + instanceId,
+                        "--items.processing.cluster.partition-size=50",
+                        "--items.processing.cluster.lease=1s",
+                        "--items.processing.cluster.heartbeat-interval=100ms",
+                        "--items.processing.chunk-size=10",
+                        "--items.processing.item-delay=5ms",
+                        "--items.processing.stage-parallelism=4");
+        instances.add(context);
+        return context;
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext context, int count) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new Item("Item " + i, "d", ItemStatus.PENDING, "item" + i + "@cluster.test"));
+        }
+        return context.getBean(ItemService.class).createAll(items).stream().map(Item::getId).toList();
+    }
+
+    private static void awaitRunState(JdbcTemplate jdbc, UUID runId, String state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (!state.equals(jdbc.queryForObject("SELECT state FROM processing_run WHERE id = ?", String.class, runId))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Run " + runId + " never got to " + state);
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * A run started on one instance is worked on by both, and starting one on the second instance as well
+     * just joins the first. Every item is processed exactly once: one PROCESSED entry in the change feed each.
+     */
+    @Test
+    public void testRunIsSharedAcrossInstances() throws Exception {
+        ConfigurableApplicationContext a = startInstance("instance-a");
+        ConfigurableApplicationContext b = startInstance("instance-b");
+        List<Long> ids = seed(a, 600);
+        JdbcTemplate jdbc = a.getBean(JdbcTemplate.class);
+
+        ProcessingRun run = new ProcessingRun();
+        CompletableFuture<Long> onA = a.getBean(ItemService.class)
+                .processItemsInChunks(ProcessingMode.PARTITIONED, run, chunk -> { });
+        CompletableFuture<Long> onB = b.getBean(ItemService.class)
+                .processItemsInChunks(ProcessingMode.PARTITIONED, new ProcessingRun(), chunk -> { });
+        onA.get(60, TimeUnit.SECONDS);
+        onB.get(60, TimeUnit.SECONDS);
+        awaitRunState(jdbc, run.getId(), "COMPLETED");
+
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM processing_run", Integer.class));
+        assertEquals(ids.size(), jdbc.queryForObject("SELECT COUNT(*) FROM item WHERE status = 'PROCESSED'", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM (SELECT item_id FROM item_change "
+                + "WHERE change_type = 'PROCESSED' GROUP BY item_id HAVING COUNT(*) > 1)", Integer.class));
+        Set<String> owners = new HashSet<>(jdbc.queryForList(
+                "SELECT owner FROM processing_partition WHERE run_id = ? AND state = 'DONE'", String.class, run.getId()));
+        assertEquals(Set.of("instance-a", "instance-b"), owners);
+    }
+
+    /**
+     * An instance died half way through its partition (and while coordinating the run). Once the leases run out
+     * the surviving instance takes over both the run and the partition, and continues after the partition's
+     * checkpoint: the items the dead instance had committed are not processed again.
+     */
+    @Test
+    public void testWorkOfDeadInstanceIsTakenOver() throws Exception {
+        ConfigurableApplicationContext a = startInstance("instance-a");
+        List<Long> ids = seed(a, 100);
+        JdbcTemplate jdbc = a.getBean(JdbcTemplate.class);
+        ProcessingRunRepository runs = a.getBean(ProcessingRunRepository.class);
+        ProcessingPartitionRepository partitions = a.getBean(ProcessingPartitionRepository.class);
+
+        // What the dead instance left behind, written in one transaction so the live one can't get in between.
+        UUID runId = UUID.randomUUID();
+        Duration lease = Duration.ofMillis(300);
+        long doneUpTo = ids.get(19);
+        a.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            assertTrue(runs.startPartitionedRun(runId, "instance-dead", lease));
+            assertEquals(2, partitions.createPartitions(runId, ids.get(0), ids.get(ids.size() - 1), 50));
+            Partition first = partitions.claim(runId, "instance-dead", lease).orElseThrow();
+            assertTrue(partitions.saveCheckpoint(first, "instance-dead", doneUpTo));
+        });
+
+        awaitRunState(jdbc, runId, "COMPLETED");
+
+        assertEquals("instance-a", jdbc.queryForObject("SELECT owner FROM processing_run WHERE id = ?", String.class, runId));
+        assertEquals(List.of("instance-a", "instance-a"), jdbc.queryForList(
+                "SELECT owner FROM processing_partition WHERE run_id = ? AND state = 'DONE' ORDER BY partition_no",
+                String.class, runId));
+        assertEquals(20, jdbc.queryForObject("SELECT COUNT(*) FROM item WHERE status = 'PENDING' AND id <= ?",
+                Integer.class, doneUpTo));
+        assertEquals(80, jdbc.queryForObject("SELECT COUNT(*) FROM item WHERE status = 'PROCESSED' AND id > ?",
+                Integer.class, doneUpTo));
+    }
+
+    /**
+     * The change feed would miss other instances' changes, so a clustered instance won't start with it on.
+     */
+    @Test
+    public void testClusterRefusesToStartWithTheChangeFeed() {
+        Exception e = assertThrows(Exception.class, () -> new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:" + database
+                                + ";DB_CLOSE_DELAY=-1",
+                        "--spring.main.banner-mode=off",
+                        "--items.processing.cluster.enabled=true",
+                        "--items.changes.enabled=true"));
+
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause.getMessage().contains("items.changes.enabled=false"), cause.getMessage());
+    }
+}
@@ -0,0 +1,140 @@
+
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the job-based processing API.
+ * Every item takes 300ms and chunks hold a single item, so a job over a few items runs long enough
+ * for us to queue, reject and cancel other jobs while it's going.
+ */
+@SpringBootTest(properties = {
+        "items.processing.item-delay=300ms",
+        "items.processing.chunk-size=1",
+        "items.processing.max-in-flight-chunks=1",
+        "items.jobs.max-concurrent-jobs=1",
+        "items.jobs.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+public class ProcessingJobTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private JsonNode submit(String mode) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(post("/api/items/process/jobs").param("mode", mode))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode fetchJob(String id) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/items/process/jobs/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    /**
+     * Polls the job until it has finished, for at most thirty seconds.
+     */
+    private JsonNode awaitFinished(String id) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        JsonNode job = fetchJob(id);
+        while (System.currentTimeMillis() < deadline
+                && (job.get("state").asText().equals("QUEUED") || job.get("state").asText().equals("RUNNING"))) {
+            Thread.sleep(50);
+            job = fetchJob(id);
+        }
+        return job;
+    }
+
+    /**
+     * Waits until the job thread has actually picked the job up, for at most ten seconds.
+     */
+    private void awaitRunning(String id) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline && fetchJob(id).get("state").asText().equals("QUEUED")) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * One job runs, one waits in the queue, and the third one doesn't fit anymore and gets a 429.
+     * Cancelling the running job stops it early, and the queued one can be cancelled before it ever starts.
+     */
+    @Test
+    public void testJobsAreQueuedRejectedAndCancelled() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            itemRepository.save(new Item("Job " + i, "Desc", ItemStatus.PENDING, "job" + i + "@example.com"));
+        }
+
+        String running = submit("CHUNKED").get("id").asText();
+        String queued = submit("CHUNKED").get("id").asText();
+
+        mockMvc.perform(post("/api/items/process/jobs"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        mockMvc.perform(delete("/api/items/process/jobs/" + queued))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CANCELLED"));
+
+        // Cancelling before the job thread has started it would leave total at 0, so make sure it's running.
+        awaitRunning(running);
+        mockMvc.perform(delete("/api/items/process/jobs/" + running))
+                .andExpect(status().isOk());
+        JsonNode cancelled = awaitFinished(running);
+        assertEquals("CANCELLED", cancelled.get("state").asText());
+        assertTrue(cancelled.get("processed").asLong() < cancelled.get("total").asLong());
+    }
+
+    /**
+     * A job that is left alone runs to completion and reports all items as processed.
+     * We run it in INCREMENTAL mode so it only has to go through the items that are still pending.
+     */
+    @Test
+    public void testJobRunsToCompletion() throws Exception {
+        itemRepository.save(new Item("Complete", "Desc", ItemStatus.PENDING, "complete@example.com"));
+
+        JsonNode job = awaitFinished(submit("INCREMENTAL").get("id").asText());
+
+        assertEquals("COMPLETED", job.get("state").asText());
+        assertEquals(job.get("total").asLong(), job.get("processed").asLong());
+        assertEquals(0, job.get("failed").asLong());
+    }
+
+    /**
+     * Jobs only run in chunks, so a PER_ITEM job is refused rather than quietly run CHUNKED.
+     */
+    @Test
+    public void testPerItemJobIsRejected() throws Exception {
+        mockMvc.perform(post("/api/items/process/jobs").param("mode", "PER_ITEM"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testUnknownJobIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/items/process/jobs/00000000-0000-0000-0000-000000000000"))
+                .andExpect(status().isNotFound());
+    }
+}
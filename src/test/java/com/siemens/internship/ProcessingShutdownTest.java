@@ -0,0 +1,67 @@
+package com.siemens.internship;
+import com.siemens.internship.config.ItemProcessingProperties.ProcessingMode;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingRun;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shutting down while a run is going on. The test closes the context itself, so it boots its own one
+ * with its own database instead of sharing the cached test context.
+ */
+public class ProcessingShutdownTest {
+
+    /**
+     * A run started the way /api/items/process starts one would take minutes at this item delay. Closing the
+     * context cancels it instead of waiting for it to finish.
+     */
+    @Test
+    public void testClosingContextCancelsRunInProgress() throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:shutdown-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.main.banner-mode=off",
+                        "--items.processing.chunk-size=10",
+                        "--items.processing.item-delay=200ms",
+                        "--items.processing.resume-on-startup=false",
+                        "--items.processing.background.enabled=false");
+        ItemService itemService = context.getBean(ItemService.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(new Item("Item " + i, "d", ItemStatus.PENDING, "item" + i + "@shutdown.test"));
+        }
+        itemService.createAll(items);
+
+        ProcessingRun run = new ProcessingRun();
+        CompletableFuture<Long> result = itemService.processItemsInChunks(ProcessingMode.CHUNKED, run, chunk -> { });
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (jdbc.queryForObject("SELECT COUNT(*) FROM item WHERE status = 'PROCESSED'", Integer.class) == 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "The run never processed a chunk");
+            Thread.sleep(50);
+        }
+
+        long start = System.nanoTime();
+        context.close();
+        long closeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(closeMillis < 10_000, "Closing the context took " + closeMillis + "ms");
+        assertTrue(run.isCancelled());
+        assertTrue(result.isDone());
+    }
+}
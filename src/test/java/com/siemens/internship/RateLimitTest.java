@@ -0,0 +1,154 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.AdaptiveConcurrencyLimiter;
+import com.siemens.internship.service.TokenBucket;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the per-client and global rate limits on /api/items, and the limiters behind them.
+ * The expensive budget is tiny here (two requests, refilling every ten seconds) so it runs out right away.
+ * Clients are told apart by the remote address we give each request; only 192.0.2.100 is a trusted proxy.
+ */
+@SpringBootTest(properties = {
+        "items.rate-limit.expensive.per-client.rate=0.1",
+        "items.rate-limit.expensive.per-client.burst=2",
+        "items.rate-limit.trusted-proxies=192.0.2.100"
+})
+@AutoConfigureMockMvc
+public class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    /**
+     * A client over its expensive budget gets 429 with a Retry-After, while its cheap budget
+     * and other clients' budgets are untouched.
+     */
+    @Test
+    public void testClientOverBudgetGets429() throws Exception {
+        Item item = itemRepository.save(new Item("Limited", "d", ItemStatus.PENDING, "limited@ratelimit.test"));
+
+        mockMvc.perform(get("/api/items").with(from("192.0.2.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/items").with(from("192.0.2.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/items").with(from("192.0.2.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+
+        mockMvc.perform(get("/api/items/{id}", item.getId()).with(from("192.0.2.1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/items").with(from("192.0.2.2")))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * A client can't get a fresh budget by sending a new X-Client-Id with every request.
+     */
+    @Test
+    public void testRotatingClientHeaderDoesNotBypassTheLimit() throws Exception {
+        mockMvc.perform(get("/api/items").with(from("192.0.2.3")).header("X-Client-Id", "first"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/items").with(from("192.0.2.3")).header("X-Client-Id", "second"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/items").with(from("192.0.2.3")).header("X-Client-Id", "third"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    /**
+     * Behind a trusted proxy the header is what tells the clients apart, since they all share the proxy's address.
+     */
+    @Test
+    public void testTrustedProxyNamesTheClient() throws Exception {
+        mockMvc.perform(get("/api/items").with(from("192.0.2.100")).header("X-Client-Id", "greedy"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/items").with(from("192.0.2.100")).header("X-Client-Id", "greedy"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/items").with(from("192.0.2.100")).header("X-Client-Id", "greedy"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/items").with(from("192.0.2.100")).header("X-Client-Id", "polite"))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor from(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+
+    /**
+     * Many threads racing for a bucket's tokens never get more than it holds.
+     */
+    @Test
+    public void testTokenBucketGrantsExactlyItsCapacityUnderContention() {
+        TokenBucket bucket = new TokenBucket(0.001, 1000);
+        AtomicInteger granted = new AtomicInteger();
+        List<CompletableFuture<Void>> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire()) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(CompletableFuture::join);
+
+        assertEquals(1000, granted.get());
+        assertTrue(bucket.nanosUntilAvailable() > 0);
+    }
+
+    /**
+     * The limiter sheds requests over its limit, backs off on slow requests and grows again on fast ones,
+     * always within its bounds.
+     */
+    @Test
+    public void testAdaptiveLimitBacksOffOnSlowRequests() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 5, 20, 1_000_000);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(5_000_000);
+        assertEquals(9, limiter.getLimit());
+        for (int i = 0; i < 9; i++) {
+            limiter.release(5_000_000);
+        }
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        for (int round = 0; round < 200; round++) {
+            while (limiter.tryAcquire()) {
+                // Fill the limit, then finish everything fast.
+            }
+            while (limiter.getInFlight() > 0) {
+                limiter.release(1_000);
+            }
+        }
+        assertEquals(20, limiter.getLimit());
+    }
+}
@@ -0,0 +1,97 @@
+package com.siemens.internship;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemStatus;
+import com.siemens.internship.repository.ItemRepository;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the reactive routes, over HTTP against the reactive server on its own (random) port.
+ * They check that it answers with the same contract as ItemController.
+ */
+@SpringBootTest(properties = {"items.reactive.enabled=true", "items.reactive.port=0"})
+public class ReactiveItemRoutesTest {
+
+    @Autowired
+    private WebServer reactiveItemServer;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    public void setUp() {
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveItemServer.getPort())
+                .build();
+    }
+
+    @Test
+    public void testListingPagesWithNextCursor() {
+        Item first = itemRepository.save(new Item("Reactive1", "d", ItemStatus.PENDING, "r1@reactive.test"));
+        Item second = itemRepository.save(new Item("Reactive2", "d", ItemStatus.PENDING, "r2@reactive.test"));
+
+        List<Item> page = client.get().uri("/api/items?after={after}&size=2", first.getId() - 1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", String.valueOf(second.getId()))
+                .expectBodyList(Item.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(page);
+        assertEquals(List.of("Reactive1", "Reactive2"), page.stream().map(Item::getName).toList());
+    }
+
+    @Test
+    public void testGetItemByIdWithETag() {
+        Item item = itemRepository.save(new Item("ReactiveGet", "d", ItemStatus.PENDING, "get@reactive.test"));
+        String eTag = "\"" + item.getVersion() + "\"";
+
+        client.get().uri("/api/items/{id}", item.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().jsonPath("$.name").isEqualTo("ReactiveGet");
+
+        client.get().uri("/api/items/{id}", item.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        client.get().uri("/api/items/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testProcessStreamEmitsProcessedItems() {
+        Item item = itemRepository.save(new Item("ReactiveProcess", "d", ItemStatus.PENDING, "process@reactive.test"));
+
+        List<Item> processed = client.get().uri("/api/items/process/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Item.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(processed);
+        assertTrue(processed.stream().allMatch(i -> i.getStatus() == ItemStatus.PROCESSED));
+        assertTrue(processed.stream().anyMatch(i -> i.getId().equals(item.getId())));
+        assertEquals(ItemStatus.PROCESSED, itemRepository.findById(item.getId()).orElseThrow().getStatus());
+    }
+}